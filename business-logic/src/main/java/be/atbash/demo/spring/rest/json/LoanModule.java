@@ -0,0 +1,94 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.json;
+
+import be.atbash.demo.spring.rest.dto.LoanParametersDTO;
+import be.atbash.demo.spring.rest.dto.LoanResponseDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Hand-written serializer and deserializer for the loan DTOs, they write and read the fields directly instead of
+ * going through the introspected record properties. Spring Boot registers this Module bean in all its ObjectMappers.
+ */
+@Component
+public class LoanModule extends SimpleModule {
+
+    private static final SerializedString MONTHLY_AMOUNT = new SerializedString("monthlyAmount");
+
+    public LoanModule() {
+        super(LoanModule.class.getSimpleName());
+        addSerializer(LoanResponseDTO.class, new LoanResponseSerializer());
+        addDeserializer(LoanParametersDTO.class, new LoanParametersDeserializer());
+    }
+
+    public static class LoanResponseSerializer extends StdSerializer<LoanResponseDTO> {
+
+        public LoanResponseSerializer() {
+            super(LoanResponseDTO.class);
+        }
+
+        @Override
+        public void serialize(LoanResponseDTO value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(value);
+            gen.writeFieldName(MONTHLY_AMOUNT);
+            gen.writeNumber(value.monthlyAmount());
+            gen.writeEndObject();
+        }
+    }
+
+    public static class LoanParametersDeserializer extends StdDeserializer<LoanParametersDTO> {
+
+        public LoanParametersDeserializer() {
+            super(LoanParametersDTO.class);
+        }
+
+        @Override
+        public LoanParametersDTO deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            String field;
+            if (p.isExpectedStartObjectToken()) {
+                field = p.nextFieldName();
+            } else if (p.hasToken(JsonToken.FIELD_NAME)) {
+                field = p.currentName();
+            } else {
+                return (LoanParametersDTO) ctxt.handleUnexpectedToken(LoanParametersDTO.class, p);
+            }
+
+            // Missing values are 0, like for the primitives of a record with the default settings.
+            double amount = 0;
+            int years = 0;
+            for (; field != null; field = p.nextFieldName()) {
+                p.nextToken();
+                switch (field) {
+                    case "amount" -> amount = _parseDoublePrimitive(p, ctxt);
+                    case "years" -> years = _parseIntPrimitive(p, ctxt);
+                    default -> p.skipChildren();
+                }
+            }
+            return new LoanParametersDTO(amount, years);
+        }
+    }
+}
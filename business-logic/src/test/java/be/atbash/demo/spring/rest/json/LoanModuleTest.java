@@ -0,0 +1,63 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.json;
+
+import be.atbash.demo.spring.rest.dto.LoanParametersDTO;
+import be.atbash.demo.spring.rest.dto.LoanResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+class LoanModuleTest {
+
+    // The default handling of the records is the reference.
+    private final ObjectMapper defaultMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper moduleMapper = Jackson2ObjectMapperBuilder.json().modulesToInstall(new LoanModule()).build();
+
+    @Test
+    void serialize_sameAsDefault() throws Exception {
+        // arrange
+        LoanResponseDTO response = new LoanResponseDTO(116.05742);
+
+        // act
+        String json = moduleMapper.writeValueAsString(response);
+
+        // assert
+        Assertions.assertThat(json).isEqualTo(defaultMapper.writeValueAsString(response));
+    }
+
+    @Test
+    void deserialize_sameAsDefault() throws Exception {
+        // arrange
+        String json = "{\"years\":10,\"unknown\":[1],\"amount\":10000.5}";
+
+        // act
+        LoanParametersDTO parameters = moduleMapper.readValue(json, LoanParametersDTO.class);
+
+        // assert
+        Assertions.assertThat(parameters).isEqualTo(new LoanParametersDTO(10_000.5, 10));
+        Assertions.assertThat(parameters).isEqualTo(defaultMapper.readValue(json, LoanParametersDTO.class));
+    }
+
+    @Test
+    void deserialize_invalidNumber() {
+        // act
+        Assertions.assertThatThrownBy(() -> moduleMapper.readValue("{\"amount\":\"a lot\",\"years\":10}", LoanParametersDTO.class))
+                .isInstanceOf(InvalidFormatException.class);
+    }
+}
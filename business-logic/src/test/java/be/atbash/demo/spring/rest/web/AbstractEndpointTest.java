@@ -53,7 +53,7 @@ public abstract class AbstractEndpointTest {
         return result;
     }
 
-    private MvcResult executeRequest(MockHttpServletRequestBuilder requestBuilder, ResultMatcher expectedStatusResult) throws Exception {
+    protected MvcResult executeRequest(MockHttpServletRequestBuilder requestBuilder, ResultMatcher expectedStatusResult) throws Exception {
         // See 'database' example for a more advanced version of this method.
         return mockMvc.perform(requestBuilder)
                 .andExpect(expectedStatusResult)
@@ -17,11 +17,15 @@ package be.atbash.demo.spring.rest.web;
 
 import be.atbash.demo.spring.rest.dto.LoanParametersDTO;
 import be.atbash.demo.spring.rest.dto.LoanResponseDTO;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import org.assertj.core.api.Assertions;
 import org.assertj.core.data.Offset;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
 @SpringBootTest // Start application in 'testing mode'
@@ -42,6 +46,24 @@ class LoanControllerIT extends AbstractEndpointTest {
         Assertions.assertThat(loanResponseDTO.monthlyAmount()).isEqualTo(116.057, Offset.offset(0.001));
     }
 
+    @Test
+    void calculateMonthlyAmount_smile() throws Exception {
+        // arrange
+        SmileMapper smileMapper = new SmileMapper();
+        MediaType smile = MediaType.parseMediaType("application/x-jackson-smile");
+
+        // act
+        MvcResult result = executeRequest(MockMvcRequestBuilders.post("/loan")
+                .contentType(smile)
+                .accept(smile)
+                .content(smileMapper.writeValueAsBytes(new LoanParametersDTO(10_000.0, 10))), MockMvcResultMatchers.status().isOk());
+
+        // assert
+        Assertions.assertThat(result.getResponse().getContentType()).isEqualTo(smile.toString());
+        LoanResponseDTO loanResponseDTO = smileMapper.readValue(result.getResponse().getContentAsByteArray(), LoanResponseDTO.class);
+        Assertions.assertThat(loanResponseDTO.monthlyAmount()).isEqualTo(116.057, Offset.offset(0.001));
+    }
+
     @Test
     void calculateMonthlyAmount_invalidData() throws Exception {
         // This test fails and will be solved in the 'exception-handling' example.
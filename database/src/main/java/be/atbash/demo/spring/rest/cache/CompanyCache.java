@@ -0,0 +1,164 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.cache;
+
+import be.atbash.demo.spring.rest.event.CompanyCreatedEvent;
+import be.atbash.demo.spring.rest.event.CompanyDeletedEvent;
+import be.atbash.demo.spring.rest.event.CompanyPurgedEvent;
+import be.atbash.demo.spring.rest.model.Company;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded (least recently used) cache of the companies by name. Companies are almost never changed, so this
+ * saves a query on almost every request.
+ * <p>
+ * Only the id, the name and the deleting flag are kept, each hit returns a new detached {@link Company} instance so that callers can't
+ * change the cached values. Detached instances can be used to link an employee to the company.
+ * Entries are only added after the commit of the transaction that read them (a rolled back transaction might have
+ * created the company) and removed after the commit of the transaction that created or deleted the company.
+ */
+@Component
+public class CompanyCache implements MeterBinder {
+
+    private record Entry(Long id, String name, boolean deleting) {
+    }
+
+    private final Map<String, Entry> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    // Incremented on each eviction so that a value read from the database before the eviction isn't stored afterwards.
+    private final AtomicLong generation = new AtomicLong();
+
+    public CompanyCache(@Value("${app.cache.company.max-size:10000}") int maxSize) {
+        // access-order LinkedHashMap is the LRU
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * @param name   the name of the company
+     * @param loader reads the company from the database when not in the cache
+     * @return the company, a detached copy when it was found in the cache.
+     */
+    public Optional<Company> get(String name, Supplier<Optional<Company>> loader) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(name);
+        }
+        if (entry != null) {
+            hits.increment();
+            return Optional.of(asCompany(entry));
+        }
+
+        misses.increment();
+        long expectedGeneration = generation.get();
+        Optional<Company> company = loader.get();
+        company.ifPresent(c -> {
+            Entry value = new Entry(c.getId(), c.getName(), c.isDeleting());
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        put(name, value, expectedGeneration);
+                    }
+                });
+            } else {
+                put(name, value, expectedGeneration);
+            }
+        });
+        return company;
+    }
+
+    private void put(String name, Entry value, long expectedGeneration) {
+        synchronized (entries) {
+            if (generation.get() == expectedGeneration) {
+                entries.put(name, value);
+            }
+        }
+    }
+
+    public void evict(String name) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.remove(name);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onCompanyCreated(CompanyCreatedEvent event) {
+        // We never store 'not found' but be safe in case that changes.
+        evict(event.name());
+    }
+
+    @TransactionalEventListener
+    public void onCompanyDeleted(CompanyDeletedEvent event) {
+        evict(event.name());
+    }
+
+    @TransactionalEventListener
+    public void onCompanyPurged(CompanyPurgedEvent event) {
+        evict(event.name());
+    }
+
+    public long size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // Follows the naming of the Micrometer cache metrics
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tags("cache", "company", "result", "hit")
+                .description("The number of times the company was found in the cache")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tags("cache", "company", "result", "miss")
+                .description("The number of times the company needed to be read from the database")
+                .register(registry);
+        Gauge.builder("cache.size", this, CompanyCache::size)
+                .tags("cache", "company")
+                .register(registry);
+    }
+
+    private static Company asCompany(Entry entry) {
+        Company company = new Company();
+        company.setId(entry.id());
+        company.setName(entry.name());
+        company.setDeleting(entry.deleting());
+        return company;
+    }
+}
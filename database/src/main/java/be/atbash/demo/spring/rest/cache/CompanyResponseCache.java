@@ -0,0 +1,192 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.cache;
+
+import be.atbash.demo.spring.rest.event.CompanyCreatedEvent;
+import be.atbash.demo.spring.rest.event.CompanyDeletedEvent;
+import be.atbash.demo.spring.rest.event.CompanyPurgedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded (least recently used) cache of the serialized responses of the company endpoints. A hit costs a map
+ * lookup, no query, no mapping and no serialization. Each response has a strong ETag so that clients can revalidate
+ * with {@code If-None-Match}. Responses are serialized with the ObjectMapper of the Jackson message converters, so
+ * there is an entry per format (JSON, CBOR, Smile).
+ * <p>
+ * Like the {@link CompanyCache}, responses are only stored after the commit of the transaction that read them and
+ * all responses are removed after the commit of a transaction that created or deleted a company (the list of all
+ * companies changes in both cases).
+ */
+@Component
+public class CompanyResponseCache implements MeterBinder {
+
+    public static final String ALL_COMPANIES = "company";
+
+    public record CachedResponse(byte[] body, String eTag, MediaType contentType) {
+    }
+
+    private final Map<String, CachedResponse> entries;
+    // In order of preference, JSON first.
+    private final Map<MediaType, ObjectMapper> objectMappers = new LinkedHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    // Incremented on each invalidation so that a response built before the invalidation isn't stored afterwards.
+    private final AtomicLong generation = new AtomicLong();
+
+    public CompanyResponseCache(List<AbstractJackson2HttpMessageConverter> converters, @Value("${app.cache.company-response.max-size:1000}") int maxSize) {
+        converters.stream()
+                // JSON first, it is the default when the client accepts any format.
+                .sorted(Comparator.comparing(converter -> !converter.getSupportedMediaTypes().contains(MediaType.APPLICATION_JSON)))
+                .forEach(converter -> converter.getSupportedMediaTypes().stream()
+                        .filter(MediaType::isConcrete)
+                        .forEach(mediaType -> objectMappers.putIfAbsent(mediaType, converter.getObjectMapper())));
+        // access-order LinkedHashMap is the LRU
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public static String companyKey(String name) {
+        return "company:" + name;
+    }
+
+    /**
+     * @return the formats in which responses can be serialized, in order of preference.
+     */
+    public List<MediaType> getMediaTypes() {
+        return new ArrayList<>(objectMappers.keySet());
+    }
+
+    /**
+     * @param key       the endpoint and its path variables, see {@link #ALL_COMPANIES} and {@link #companyKey(String)}
+     * @param mediaType the format of the response, one of {@link #getMediaTypes()}
+     * @param loader    retrieves the value of the response when not in the cache. Exceptions are not cached.
+     * @return the serialized response
+     */
+    public CachedResponse get(String key, MediaType mediaType, Supplier<?> loader) {
+        String entryKey = key + '|' + mediaType;
+        CachedResponse response;
+        synchronized (entries) {
+            response = entries.get(entryKey);
+        }
+        if (response != null) {
+            hits.increment();
+            return response;
+        }
+
+        misses.increment();
+        long expectedGeneration = generation.get();
+        CachedResponse value = serialize(loader.get(), mediaType);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(entryKey, value, expectedGeneration);
+                }
+            });
+        } else {
+            put(entryKey, value, expectedGeneration);
+        }
+        return value;
+    }
+
+    private CachedResponse serialize(Object value, MediaType mediaType) {
+        try {
+            byte[] body = objectMappers.get(mediaType).writeValueAsBytes(value);
+            // Same format as the ShallowEtagHeaderFilter of Spring, differs between the formats as the body differs.
+            return new CachedResponse(body, "\"0" + DigestUtils.md5DigestAsHex(body) + '"', mediaType);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void put(String key, CachedResponse value, long expectedGeneration) {
+        synchronized (entries) {
+            if (generation.get() == expectedGeneration) {
+                entries.put(key, value);
+            }
+        }
+    }
+
+    public void invalidate() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onCompanyCreated(CompanyCreatedEvent event) {
+        invalidate();
+    }
+
+    @TransactionalEventListener
+    public void onCompanyDeleted(CompanyDeletedEvent event) {
+        invalidate();
+    }
+
+    @TransactionalEventListener
+    public void onCompanyPurged(CompanyPurgedEvent event) {
+        invalidate();
+    }
+
+    public long size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tags("cache", "company-response", "result", "hit")
+                .description("The number of times the serialized response was found in the cache")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tags("cache", "company-response", "result", "miss")
+                .description("The number of times the response needed to be built")
+                .register(registry);
+        Gauge.builder("cache.size", this, CompanyResponseCache::size)
+                .tags("cache", "company-response")
+                .register(registry);
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded store of the responses of requests with an Idempotency-Key, so that a retry of the request receives the
+ * original response instead of being executed again. Entries expire after the TTL, and when the store is full the
+ * oldest completed entry is removed. Entries of requests that are still executing are never removed, their retry
+ * would execute the request a second time.
+ * <p>
+ * A key is reserved before the request is executed (in flight) and completed with the response afterwards. The
+ * fingerprint of the request body is kept so that reusing a key for a different request can be detected.
+ */
+public class IdempotencyStore implements MeterBinder {
+
+    public enum Outcome {
+        /**
+         * Key was reserved, the caller must execute the request and call complete() or release().
+         */
+        ACQUIRED,
+        /**
+         * A request with this key is still executing.
+         */
+        IN_FLIGHT,
+        /**
+         * The key was used with a different request body.
+         */
+        MISMATCH,
+        /**
+         * The request was already executed, see {@link Reservation#response()}.
+         */
+        COMPLETED,
+        /**
+         * The store is full with requests that are still executing, the request can't be accepted now.
+         */
+        FULL
+    }
+
+    public record StoredResponse(int status, String contentType, String location, byte[] body) {
+    }
+
+    public record Reservation(Outcome outcome, StoredResponse response) {
+    }
+
+    private static final class Entry {
+        private final String fingerprint;
+        private final Instant expiresAt;
+        private StoredResponse response;  // null while in flight
+
+        private Entry(String fingerprint, Instant expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final Clock clock;
+    private final int maxSize;
+    private final Duration ttl;
+    // Insertion order, so the eldest entry also expires first.
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private final LongAdder replays = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+
+    public IdempotencyStore(Clock clock, int maxSize, Duration ttl) {
+        this.clock = clock;
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+    }
+
+    public synchronized Reservation reserve(String key, String fingerprint) {
+        Instant now = clock.instant();
+        removeExpired(now);
+
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            if (entries.size() >= maxSize && !removeEldestCompleted()) {
+                conflicts.increment();
+                return new Reservation(Outcome.FULL, null);
+            }
+            entries.put(key, new Entry(fingerprint, now.plus(ttl)));
+            return new Reservation(Outcome.ACQUIRED, null);
+        }
+        if (!entry.fingerprint.equals(fingerprint)) {
+            conflicts.increment();
+            return new Reservation(Outcome.MISMATCH, null);
+        }
+        if (entry.response == null) {
+            conflicts.increment();
+            return new Reservation(Outcome.IN_FLIGHT, null);
+        }
+        replays.increment();
+        return new Reservation(Outcome.COMPLETED, entry.response);
+    }
+
+    public synchronized void complete(String key, StoredResponse response) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.response = response;
+        }
+    }
+
+    /**
+     * Removes the reservation so that the request can be retried, used when the request failed unexpectedly.
+     */
+    public synchronized void release(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.response == null) {
+            entries.remove(key);
+        }
+    }
+
+    private void removeExpired(Instant now) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext() && !iterator.next().expiresAt.isAfter(now)) {
+            iterator.remove();
+        }
+    }
+
+    private boolean removeEldestCompleted() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().response != null) {
+                iterator.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("idempotency.requests", replays, LongAdder::sum)
+                .tags("result", "replay")
+                .description("The number of requests answered with the stored response")
+                .register(registry);
+        FunctionCounter.builder("idempotency.requests", conflicts, LongAdder::sum)
+                .tags("result", "conflict")
+                .description("The number of requests rejected because the key was in flight, used for another request or the store was full")
+                .register(registry);
+        Gauge.builder("idempotency.store.size", this, IdempotencyStore::size)
+                .register(registry);
+    }
+}
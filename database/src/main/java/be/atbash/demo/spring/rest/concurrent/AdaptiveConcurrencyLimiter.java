@@ -0,0 +1,127 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.concurrent;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits the number of concurrent requests of an endpoint group, the limit follows the measured latency (gradient
+ * algorithm). The short term average latency is compared with the long term average: as long as they are similar, the
+ * limit grows (with the square root of the limit, the allowed queue); when the short term latency rises because
+ * requests start waiting on the connection pool or the database, the limit shrinks proportionally.
+ * <p>
+ * The limit only changes when the group uses at least half of it, a group that is not busy does not inflate the limit.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    // Short term latency may be 50% above the long term latency before the limit shrinks.
+    private static final double TOLERANCE = 1.5;
+    // Weight of the new estimate, dampens the variation of the limit.
+    private static final double SMOOTHING = 0.2;
+    // Number of samples of the exponential moving averages.
+    private static final int SHORT_WINDOW = 10;
+    private static final int LONG_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    private volatile int limit;
+
+    // Guarded by this
+    private double estimatedLimit;
+    private double shortRtt;
+    private double longRtt;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException(String.format("Limits must satisfy 1 <= min (%s) <= initial (%s) <= max (%s)"
+                    , minLimit, initialLimit, maxLimit));
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+    }
+
+    /**
+     * @return false when the limit is reached, the request must be rejected. When true, release must be called.
+     */
+    public boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > limit) {
+            inFlight.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Releases the permit and uses the duration of the request to adjust the limit.
+     */
+    public void release(long rttNanos) {
+        int concurrency = inFlight.getAndDecrement();
+        onSample(rttNanos, concurrency);
+    }
+
+    /**
+     * Releases the permit without adjusting the limit, for requests whose duration says nothing about the load (like
+     * a failed request or a response that continues asynchronously).
+     */
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    private synchronized void onSample(long rttNanos, int concurrency) {
+        if (longRtt == 0) {
+            shortRtt = rttNanos;
+            longRtt = rttNanos;
+        } else {
+            shortRtt += (rttNanos - shortRtt) * 2.0 / (SHORT_WINDOW + 1);
+            longRtt += (rttNanos - longRtt) * 2.0 / (LONG_WINDOW + 1);
+        }
+
+        if (longRtt / shortRtt > 2) {
+            // Latency dropped a lot (a slow period is over), move the baseline faster towards the current latency.
+            longRtt *= 0.95;
+        }
+
+        if (concurrency < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        newLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
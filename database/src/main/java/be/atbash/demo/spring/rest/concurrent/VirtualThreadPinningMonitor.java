@@ -0,0 +1,119 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.concurrent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads that block while pinned to their carrier thread (blocking within a synchronized block or a
+ * native call), as these block the carrier thread and limit the number of virtual threads that can run. Uses the
+ * jdk.VirtualThreadPinned event of the Flight Recorder, available from Java 21.
+ * <p>
+ * Each pinning is counted in the jvm.threads.virtual.pinned timer (same name as the VirtualThreadMetrics of
+ * Micrometer). The first pinning at a location is logged as warning with the stack trace, the next ones only on debug.
+ */
+public class VirtualThreadPinningMonitor implements SmartLifecycle, MeterBinder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 8;
+    private static final int MAX_LOCATIONS = 1000;
+
+    private final Duration threshold;
+    private final Set<String> reportedLocations = ConcurrentHashMap.newKeySet();
+    private volatile Timer pinnedTimer;
+    private RecordingStream recordingStream;
+
+    /**
+     * @param threshold pinnings shorter than this duration are not reported.
+     */
+    public VirtualThreadPinningMonitor(Duration threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public synchronized void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+        LOGGER.info("Reporting virtual threads pinned longer than {} ms", threshold.toMillis());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+            recordingStream = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return recordingStream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        Timer timer = pinnedTimer;
+        if (timer != null) {
+            timer.record(event.getDuration());
+        }
+
+        List<String> frames = frames(event.getStackTrace());
+        String location = frames.isEmpty() ? "unknown" : frames.get(0);
+        // Bounded, so that we don't keep every location when there are many.
+        if (reportedLocations.size() < MAX_LOCATIONS && reportedLocations.add(location)) {
+            LOGGER.warn("Virtual thread pinned its carrier thread for {} ms at\n\t{}", event.getDuration().toMillis()
+                    , String.join("\n\t", frames));
+        } else if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Virtual thread pinned its carrier thread for {} ms at {}", event.getDuration().toMillis(), location);
+        }
+    }
+
+    private static List<String> frames(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return List.of();
+        }
+        return stackTrace.getFrames().stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .limit(LOGGED_FRAMES)
+                .map(frame -> frame.getMethod().getType().getName() + '.' + frame.getMethod().getName() + ':' + frame.getLineNumber())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        pinnedTimer = Timer.builder("jvm.threads.virtual.pinned")
+                .description("The duration while the virtual thread was pinned without releasing its platform carrier thread")
+                .register(registry);
+    }
+}
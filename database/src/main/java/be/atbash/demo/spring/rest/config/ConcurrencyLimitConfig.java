@@ -0,0 +1,53 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.config;
+
+import be.atbash.demo.spring.rest.web.ConcurrencyLimitInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Adaptive concurrency limit per endpoint group (controller), see ConcurrencyLimitInterceptor. Only active with
+ * app.concurrency-limit.enabled=true. The initial limit defaults to the size of the connection pool
+ * (spring.datasource.hikari.maximum-pool-size, 10 when not set) within the min and max limit, the limiter adapts it
+ * from there.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.concurrency-limit.enabled", havingValue = "true")
+public class ConcurrencyLimitConfig implements WebMvcConfigurer {
+
+    private final ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+
+    public ConcurrencyLimitConfig(@Value("${app.concurrency-limit.initial-limit:${spring.datasource.hikari.maximum-pool-size:10}}") int initialLimit
+            , @Value("${app.concurrency-limit.min-limit:5}") int minLimit
+            , @Value("${app.concurrency-limit.max-limit:200}") int maxLimit) {
+        concurrencyLimitInterceptor = new ConcurrencyLimitInterceptor(initialLimit, minLimit, maxLimit);
+    }
+
+    @Bean  // As bean so that the metrics are registered.
+    public ConcurrencyLimitInterceptor concurrencyLimitInterceptor() {
+        return concurrencyLimitInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(concurrencyLimitInterceptor);
+    }
+}
@@ -15,11 +15,15 @@
  */
 package be.atbash.demo.spring.rest.config;
 
+import be.atbash.demo.spring.rest.exception.BusinessConflictException;
 import be.atbash.demo.spring.rest.exception.BusinessValidationException;
+import be.atbash.demo.spring.rest.exception.ConcurrencyLimitExceededException;
 import org.springframework.context.NoSuchMessageException;
 import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
@@ -50,6 +54,30 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return problemDetail;
     }
 
+    @ExceptionHandler(BusinessConflictException.class)
+    ProblemDetail handleBusinessConflictException(BusinessConflictException e) {
+
+        String message = getMessage(e.getCode(), e.getParameters());
+
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, message);
+        problemDetail.setTitle("Conflict");
+        problemDetail.setType(URI.create("https://api.atbash.be/errors/business-conflict"));
+        problemDetail.setProperty("code", e.getCode());
+        return problemDetail;
+    }
+
+    @ExceptionHandler(ConcurrencyLimitExceededException.class)
+    ResponseEntity<ProblemDetail> handleConcurrencyLimitExceededException(ConcurrencyLimitExceededException e) {
+
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, "Too many concurrent requests, retry later");
+        problemDetail.setTitle("Overloaded");
+        problemDetail.setType(URI.create("https://api.atbash.be/errors/overloaded"));
+        problemDetail.setProperty("group", e.getGroup());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(problemDetail);
+    }
+
     private String getMessage(String code, Object[] args) {
         try {
             return getMessageSource().getMessage(code, args, Locale.ENGLISH);
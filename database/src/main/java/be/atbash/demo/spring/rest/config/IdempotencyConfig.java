@@ -0,0 +1,50 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.config;
+
+import be.atbash.demo.spring.rest.cache.IdempotencyStore;
+import be.atbash.demo.spring.rest.web.IdempotencyFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Idempotency-Key support for the endpoints that create a company or an employee, see IdempotencyFilter.
+ */
+@Configuration
+public class IdempotencyConfig {
+
+    @Bean
+    public IdempotencyStore idempotencyStore(@Value("${app.idempotency.max-size:10000}") int maxSize
+            , @Value("${app.idempotency.ttl:24h}") Duration ttl) {
+        return new IdempotencyStore(Clock.systemUTC(), maxSize, ttl);
+    }
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyStore idempotencyStore, ObjectMapper objectMapper
+            , @Value("${app.idempotency.max-body-size:64KB}") DataSize maxBodySize) {
+        IdempotencyFilter filter = new IdempotencyFilter(idempotencyStore, objectMapper, Math.toIntExact(maxBodySize.toBytes()));
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/company", "/employee");
+        return registration;
+    }
+}
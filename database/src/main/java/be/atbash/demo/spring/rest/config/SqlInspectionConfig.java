@@ -0,0 +1,74 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.config;
+
+import be.atbash.demo.spring.rest.web.StatementCountFilter;
+import net.ttddyy.dsproxy.listener.logging.SLF4JLogLevel;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Development and CI aid to find N+1 problems and slow queries. The DataSource used by JPA is wrapped in a
+ * datasource-proxy that counts the statements per thread (see QueryCountHolder) and logs each statement slower than
+ * the threshold together with its bind parameters. The StatementCountFilter logs the number of statements per request.
+ * <p>
+ * Activated with 'app.sql.inspection.enabled=true', not intended for production.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sql.inspection.enabled", havingValue = "true")
+public class SqlInspectionConfig {
+
+    public static final String SLOW_QUERY_LOGGER = "be.atbash.demo.spring.rest.sql.slow";
+
+    @Bean
+    public static BeanPostProcessor statementInspectingDataSourcePostProcessor(Environment environment) {
+        // static as it is a BeanPostProcessor, and therefore we also can't inject the values with @Value.
+        Duration threshold = environment.getProperty("app.sql.inspection.slow-query-threshold", Duration.class, Duration.ofMillis(500));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Only the DataSource used by JPA, with routing it delegates to the pools so that we don't count twice.
+                if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .countQuery()
+                            .logSlowQueryBySlf4j(threshold.toMillis(), TimeUnit.MILLISECONDS, SLF4JLogLevel.WARN, SLOW_QUERY_LOGGER)
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<StatementCountFilter> statementCountFilter(Environment environment) {
+        int maxStatements = environment.getProperty("app.sql.inspection.max-statements-per-request", Integer.class, 20);
+        FilterRegistrationBean<StatementCountFilter> registration = new FilterRegistrationBean<>(new StatementCountFilter(maxStatements));
+        // Outermost, so that the count is also reset for requests answered by another filter (like IdempotencyFilter)
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
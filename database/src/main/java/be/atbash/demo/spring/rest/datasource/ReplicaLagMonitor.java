@@ -0,0 +1,116 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Decides if the replica can be used for reading. The replica is not used when it is too far behind the primary
+ * (measured with the lag query) or when we could not connect to it. The check is performed at most once per check
+ * interval, by the thread that needs the information; other threads use the last known state in the meantime.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final DataSource replica;
+    private final Duration maxLag;
+    private final Duration checkInterval;
+    private final String lagQuery;
+    private final String lagColumn;
+    private final Clock clock;
+
+    private final ReentrantLock checkLock = new ReentrantLock();
+    private volatile boolean usable = true;
+    private volatile long nextCheck;
+
+    /**
+     * @param replica       the replica connection pool
+     * @param maxLag        the maximum tolerated replication lag
+     * @param checkInterval how long the outcome of a check is used
+     * @param lagQuery      the query returning the lag in seconds (like 'SHOW REPLICA STATUS' on MySQL). When empty, the lag is not checked.
+     * @param lagColumn     the column containing the lag in seconds (like 'Seconds_Behind_Source'). When empty, the first column is used.
+     * @param clock         the clock, to be able to test.
+     */
+    public ReplicaLagMonitor(DataSource replica, Duration maxLag, Duration checkInterval, String lagQuery, String lagColumn, Clock clock) {
+        this.replica = replica;
+        this.maxLag = maxLag;
+        this.checkInterval = checkInterval;
+        this.lagQuery = lagQuery;
+        this.lagColumn = lagColumn;
+        this.clock = clock;
+    }
+
+    public boolean isReplicaUsable() {
+        if (clock.millis() >= nextCheck && checkLock.tryLock()) {
+            try {
+                usable = checkReplica();
+                nextCheck = clock.millis() + checkInterval.toMillis();
+            } finally {
+                checkLock.unlock();
+            }
+        }
+        return usable;
+    }
+
+    /**
+     * Called when a connection to the replica could not be made. The primary is used until the next check.
+     */
+    public void reportFailure(SQLException e) {
+        LOGGER.warn("Replica not available, using the primary for reading. {}", e.getMessage());
+        usable = false;
+        nextCheck = clock.millis() + checkInterval.toMillis();
+    }
+
+    private boolean checkReplica() {
+        try (Connection connection = replica.getConnection()) {
+            if (lagQuery == null || lagQuery.isBlank()) {
+                return connection.isValid(1);
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                if (!resultSet.next()) {
+                    // No replication status, the database is not (or no longer) a replica and thus up-to-date.
+                    return true;
+                }
+                long lagSeconds = lagColumn == null || lagColumn.isBlank() ? resultSet.getLong(1) : resultSet.getLong(lagColumn);
+                if (resultSet.wasNull()) {
+                    // MySQL reports NULL when replication is not running.
+                    LOGGER.warn("Replication is not running, using the primary for reading.");
+                    return false;
+                }
+                boolean withinTolerance = lagSeconds <= maxLag.toSeconds();
+                if (!withinTolerance) {
+                    LOGGER.warn("Replica lag of {}s exceeds the tolerance of {}s, using the primary for reading.", lagSeconds, maxLag.toSeconds());
+                }
+                return withinTolerance;
+            }
+        } catch (SQLException e) {
+            LOGGER.warn("Replica check failed, using the primary for reading. {}", e.getMessage());
+            return false;
+        }
+    }
+}
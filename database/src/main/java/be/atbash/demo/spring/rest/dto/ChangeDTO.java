@@ -0,0 +1,28 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.dto;
+
+import be.atbash.demo.spring.rest.model.ChangeEntityType;
+import be.atbash.demo.spring.rest.model.ChangeType;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.Instant;
+
+// data is the JSON of the company or employee, stored as such in the change log. A tree and not a raw value, as
+// CBOR and Smile can't write raw JSON.
+public record ChangeDTO(ChangeEntityType entity, ChangeType type, Long id, Long companyId, Instant changedAt,
+                        JsonNode data) {
+}
@@ -0,0 +1,23 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.dto;
+
+/**
+ * Outcome of a single row of a batch import. 'index' refers to the position of the employee within the request.
+ * When the employee is created, 'id' contains the assigned technical key, otherwise 'code' indicates why the row was rejected.
+ */
+public record EmployeeBatchRowDTO(int index, String email, Long id, String code) {
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar layout of a list of employees: one array per requested field, the values at the same index belong to
+ * the same employee. The company is the same for all employees and only present once.
+ */
+public record EmployeeColumnsDTO(CompanyDTO company, int count, Map<String, List<Object>> columns) {
+}
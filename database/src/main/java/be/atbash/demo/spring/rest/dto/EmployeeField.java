@@ -0,0 +1,83 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.dto;
+
+import be.atbash.demo.spring.rest.exception.BusinessValidationException;
+import be.atbash.demo.spring.rest.exception.DomainErrorCodes;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The fields of EmployeeWithIdDTO that can be selected with the 'fields' parameter, with the JPQL path that is
+ * selected for them. The company is known from the request and never selected.
+ */
+public enum EmployeeField {
+
+    ID("id", "e.id"),
+    EMAIL("email", "e.email"),
+    FIRST_NAME("firstName", "e.firstName"),
+    LAST_NAME("lastName", "e.lastName"),
+    HIRE_DATE("hireDate", "e.hireDate"),
+    GENDER("gender", "e.gender"),
+    COMPANY("company", null);
+
+    /**
+     * All field names, the selection when the client doesn't specify one.
+     */
+    public static final String ALL_FIELDS = "id,email,firstName,lastName,hireDate,gender,company";
+
+    private final String fieldName;
+    private final String path;
+
+    EmployeeField(String fieldName, String path) {
+        this.fieldName = fieldName;
+        this.path = path;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public boolean isSelected() {
+        return path != null;
+    }
+
+    /**
+     * @param fields comma separated list of field names, like 'id,email'
+     * @return the fields in declaration order, at least one of them selected from the database.
+     */
+    public static Set<EmployeeField> parse(String fields) {
+        Set<EmployeeField> result = EnumSet.noneOf(EmployeeField.class);
+        for (String name : fields.split(",")) {
+            String fieldName = name.trim();
+            EmployeeField field = Arrays.stream(values())
+                    .filter(f -> f.fieldName.equals(fieldName))
+                    .findAny()
+                    .orElseThrow(() -> new BusinessValidationException(DomainErrorCodes.EMPLOYEE_FIELDS_INVALID));
+            result.add(field);
+        }
+        if (result.stream().noneMatch(EmployeeField::isSelected)) {
+            throw new BusinessValidationException(DomainErrorCodes.EMPLOYEE_FIELDS_INVALID);
+        }
+        return result;
+    }
+}
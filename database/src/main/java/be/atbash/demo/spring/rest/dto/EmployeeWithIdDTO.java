@@ -19,4 +19,10 @@ import be.atbash.demo.spring.rest.model.Gender;
 
 import java.time.LocalDate;
 
-public record EmployeeWithIdDTO(Long id, String email, String firstName, String lastName, LocalDate hireDate, Gender gender, CompanyDTO company) {}
\ No newline at end of file
+public record EmployeeWithIdDTO(Long id, String email, String firstName, String lastName, LocalDate hireDate, Gender gender, CompanyDTO company) {
+
+    // Used by the constructor expressions of the queries in EmployeeRepository as JPQL doesn't support a nested 'new'.
+    public EmployeeWithIdDTO(Long id, String email, String firstName, String lastName, LocalDate hireDate, Gender gender, String companyName) {
+        this(id, email, firstName, lastName, hireDate, gender, new CompanyDTO(companyName));
+    }
+}
\ No newline at end of file
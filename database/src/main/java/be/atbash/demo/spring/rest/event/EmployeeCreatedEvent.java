@@ -0,0 +1,25 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.event;
+
+import be.atbash.demo.spring.rest.dto.EmployeeWithIdDTO;
+
+/**
+ * Published within the transaction that creates the employee. Use a {@code @TransactionalEventListener} to react
+ * only when the transaction is committed.
+ */
+public record EmployeeCreatedEvent(Long companyId, EmployeeWithIdDTO employee) {
+}
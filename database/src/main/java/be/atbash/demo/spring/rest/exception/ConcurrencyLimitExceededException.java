@@ -0,0 +1,34 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.exception;
+
+/**
+ * The concurrency limit of the endpoint group is reached, the request is rejected before it is executed.
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    private final String group;
+
+    public ConcurrencyLimitExceededException(String group) {
+        // No stack trace, the exception is thrown for every rejected request when the application is overloaded.
+        super("Concurrency limit reached for " + group, null, false, false);
+        this.group = group;
+    }
+
+    public String getGroup() {
+        return group;
+    }
+}
@@ -19,7 +19,16 @@ public final class DomainErrorCodes {
 
     public static final String COMPANY_NAME_NOT_FOUND = "error.validation.company.name.notFound";
     public static final String COMPANY_NAME_ALREADY_EXISTS = "error.validation.company.name.alreadyExists";
+    public static final String COMPANY_NAMES_TOO_MANY = "error.validation.company.names.tooMany";
+    public static final String COMPANY_DELETION_NOT_FOUND = "error.validation.company.deletion.notFound";
     public static final String EMPLOYEE_EMAIL_ALREADY_IN_USE = "error.validation.employee.email.alreadyInUse";
+    public static final String EMPLOYEE_BATCH_EMAIL_CONFLICT = "error.validation.employee.batch.emailConflict";
+    public static final String EMPLOYEE_REQUIRED_FIELD_MISSING = "error.validation.employee.field.required";
+    public static final String EMPLOYEE_FIELDS_INVALID = "error.validation.employee.fields.invalid";
+    public static final String EMPLOYEE_LAYOUT_INVALID = "error.validation.employee.layout.invalid";
+    public static final String CURSOR_INVALID = "error.validation.cursor.invalid";
+    public static final String SEARCH_QUERY_TOO_SHORT = "error.validation.search.query.tooShort";
+    public static final String EXPORT_FORMAT_INVALID = "error.validation.export.format.invalid";
 
     private DomainErrorCodes() {
     }
@@ -0,0 +1,207 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.feed;
+
+import be.atbash.demo.spring.rest.event.CompanyDeletedEvent;
+import be.atbash.demo.spring.rest.event.EmployeeCreatedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pushes the changes to the employees of a company to the subscribed clients as Server-Sent Events, so that they
+ * don't need to poll the list of employees.
+ * <p>
+ * Events are only sent after the commit of the transaction. Each subscriber has a bounded buffer and the events are
+ * sent on the task executor, so that a slow client never blocks the thread that commits. When the buffer of a
+ * subscriber is full, the buffered events are dropped and replaced by a single 'resync' event, the client must then
+ * retrieve the full list of employees again.
+ * <p>
+ * Events: 'created' with the new employee, 'deleted' with the company id (the stream is closed afterwards) and
+ * 'resync'.
+ */
+@Component
+public class EmployeeEventFeed implements MeterBinder {
+
+    private final TaskExecutor taskExecutor;
+    private final int bufferSize;
+    private final Duration timeout;
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final LongAdder sentEvents = new LongAdder();
+    private final LongAdder droppedEvents = new LongAdder();
+
+    public EmployeeEventFeed(@Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor
+            , @Value("${app.employee.feed.buffer-size:256}") int bufferSize
+            , @Value("${app.employee.feed.timeout:30m}") Duration timeout) {
+        this.taskExecutor = taskExecutor;
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+    }
+
+    public SseEmitter subscribe(Long companyId) {
+        // The client (EventSource) reconnects automatically after the timeout.
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        subscribe(companyId, emitter);
+        return emitter;
+    }
+
+    void subscribe(Long companyId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(companyId, emitter);
+        // Added within compute, so that it can't end up in a set that unsubscribe just removed.
+        subscribers.compute(companyId, (id, companySubscribers) -> {
+            Set<Subscriber> result = companySubscribers == null ? ConcurrentHashMap.newKeySet() : companySubscribers;
+            result.add(subscriber);
+            return result;
+        });
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.companyId, (id, companySubscribers) -> {
+            companySubscribers.remove(subscriber);
+            return companySubscribers.isEmpty() ? null : companySubscribers;
+        });
+    }
+
+    @TransactionalEventListener
+    public void onEmployeeCreated(EmployeeCreatedEvent event) {
+        Set<Subscriber> companySubscribers = subscribers.get(event.companyId());
+        if (companySubscribers == null) {
+            return;
+        }
+        // A builder per subscriber, build() modifies the builder and the subscribers send on their own thread.
+        companySubscribers.forEach(subscriber -> subscriber.offer(SseEmitter.event()
+                .id(String.valueOf(event.employee().id()))
+                .name("created")
+                .data(event.employee(), MediaType.APPLICATION_JSON), false));
+    }
+
+    @TransactionalEventListener
+    public void onCompanyDeleted(CompanyDeletedEvent event) {
+        Set<Subscriber> companySubscribers = subscribers.remove(event.id());
+        if (companySubscribers == null) {
+            return;
+        }
+        companySubscribers.forEach(subscriber -> subscriber.offer(SseEmitter.event()
+                .name("deleted")
+                .data(event.id()), true));
+    }
+
+    public int subscriberCount() {
+        return subscribers.values().stream()
+                .mapToInt(Set::size)
+                .sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("employee.feed.subscribers", this, EmployeeEventFeed::subscriberCount)
+                .register(registry);
+        FunctionCounter.builder("employee.feed.events", sentEvents, LongAdder::sum)
+                .tags("result", "sent")
+                .register(registry);
+        FunctionCounter.builder("employee.feed.events", droppedEvents, LongAdder::sum)
+                .tags("result", "dropped")
+                .description("Events dropped because the buffer of a slow subscriber was full")
+                .register(registry);
+    }
+
+    private final class Subscriber {
+
+        private final Long companyId;
+        private final SseEmitter emitter;
+
+        // Guarded by 'this'
+        private final Queue<SseEventBuilder> buffer = new ArrayDeque<>();
+        private boolean draining;
+        private boolean completeWhenDrained;
+
+        private Subscriber(Long companyId, SseEmitter emitter) {
+            this.companyId = companyId;
+            this.emitter = emitter;
+        }
+
+        private void offer(SseEventBuilder event, boolean last) {
+            synchronized (this) {
+                if (completeWhenDrained) {
+                    return;
+                }
+                if (buffer.size() >= bufferSize) {
+                    droppedEvents.add(buffer.size());
+                    buffer.clear();
+                    buffer.add(SseEmitter.event().name("resync").data(companyId));
+                }
+                buffer.add(event);
+                completeWhenDrained = last;
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            taskExecutor.execute(this::drain);
+        }
+
+        private void drain() {
+            while (true) {
+                SseEventBuilder event;
+                synchronized (this) {
+                    event = buffer.poll();
+                    if (event == null) {
+                        draining = false;
+                        if (completeWhenDrained) {
+                            emitter.complete();
+                        }
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(event);
+                    sentEvents.increment();
+                } catch (IOException | IllegalStateException e) {
+                    // Client is gone or the emitter is already completed.
+                    synchronized (this) {
+                        droppedEvents.add(buffer.size() + 1L);
+                        buffer.clear();
+                        completeWhenDrained = true;
+                        draining = false;
+                    }
+                    unsubscribe(this);
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.index;
+
+import be.atbash.demo.spring.rest.event.CompanyCreatedEvent;
+import be.atbash.demo.spring.rest.event.CompanyDeletedEvent;
+import be.atbash.demo.spring.rest.repository.CompanyRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Sorted array of all company names for type-ahead. A prefix lookup is a binary search for the first candidate
+ * followed by a scan while the names start with the prefix, no database access. Matching is case-insensitive.
+ * <p>
+ * Companies are rarely created or deleted, so each change creates new arrays (copy-on-write) and lookups never
+ * need a lock.
+ */
+@Component
+public class CompanyNameIndex {
+
+    // keys are the lowercase names, in the same order as the names.
+    private record Snapshot(String[] keys, String[] names) {
+    }
+
+    private static final Snapshot EMPTY = new Snapshot(new String[0], new String[0]);
+
+    private final CompanyRepository companyRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile Snapshot snapshot = EMPTY;
+    // Guarded by 'this'
+    private boolean ready;
+    private final List<Object> pendingEvents = new ArrayList<>();
+
+    public CompanyNameIndex(CompanyRepository companyRepository, PlatformTransactionManager transactionManager) {
+        this.companyRepository = companyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<String> names = transactionTemplate.execute(status -> companyRepository.findAllNames());
+        synchronized (this) {
+            snapshot = build(names);
+            ready = true;
+            pendingEvents.forEach(this::apply);
+            pendingEvents.clear();
+        }
+    }
+
+    /**
+     * @param prefix start of the name, case-insensitive
+     * @param limit  maximum number of names
+     * @return the company names starting with the prefix, in alphabetical order.
+     */
+    public List<String> suggest(String prefix, int limit) {
+        Snapshot current = snapshot;
+        String key = key(prefix);
+        int index = lowerBound(current.keys(), key);
+        List<String> result = new ArrayList<>(Math.min(limit, 16));
+        while (index < current.keys().length && result.size() < limit && current.keys()[index].startsWith(key)) {
+            result.add(current.names()[index]);
+            index++;
+        }
+        return result;
+    }
+
+    @TransactionalEventListener
+    public void onCompanyCreated(CompanyCreatedEvent event) {
+        onChange(event);
+    }
+
+    @TransactionalEventListener
+    public void onCompanyDeleted(CompanyDeletedEvent event) {
+        onChange(event);
+    }
+
+    private synchronized void onChange(Object event) {
+        if (ready) {
+            apply(event);
+        } else {
+            pendingEvents.add(event);
+        }
+    }
+
+    private void apply(Object event) {
+        List<String> names = new ArrayList<>(Arrays.asList(snapshot.names()));
+        if (event instanceof CompanyCreatedEvent created) {
+            if (!names.contains(created.name())) {
+                names.add(created.name());
+            }
+        } else if (event instanceof CompanyDeletedEvent deleted) {
+            names.remove(deleted.name());
+        }
+        snapshot = build(names);
+    }
+
+    public int size() {
+        return snapshot.names().length;
+    }
+
+    private static Snapshot build(List<String> names) {
+        String[] sortedNames = names.stream()
+                .sorted(Comparator.comparing(CompanyNameIndex::key).thenComparing(Comparator.naturalOrder()))
+                .toArray(String[]::new);
+        String[] keys = Arrays.stream(sortedNames)
+                .map(CompanyNameIndex::key)
+                .toArray(String[]::new);
+        return new Snapshot(keys, sortedNames);
+    }
+
+    // First index with a key >= the given key.
+    private static int lowerBound(String[] keys, String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle].compareTo(key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.index;
+
+import be.atbash.demo.spring.rest.event.CompanyDeletedEvent;
+import be.atbash.demo.spring.rest.event.EmployeeCreatedEvent;
+import be.atbash.demo.spring.rest.repository.CompanyEmail;
+import be.atbash.demo.spring.rest.repository.CompanyEmployeeCount;
+import be.atbash.demo.spring.rest.repository.EmployeeRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * A Bloom filter per company with the emails of its employees. When the filter answers 'definitely not present',
+ * the query to check if the email is already in use can be skipped. On 'maybe present' the database is queried.
+ * <p>
+ * The filters are built at startup and updated on each insert (within the transaction, a rolled back insert
+ * only results in a false positive). Until the filters are built, every email is reported as 'maybe present'.
+ * The unique constraint on the email column remains the final guard, for example for employees inserted by
+ * another instance of the application.
+ */
+@Component
+public class EmployeeEmailFilter implements MeterBinder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EmployeeEmailFilter.class);
+
+    // Room for growth before the false positive rate degrades, also the size for a company without employees.
+    private static final int MINIMAL_CAPACITY = 1000;
+
+    private final EmployeeRepository employeeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final double falsePositiveRate;
+
+    private volatile Map<Long, BloomFilter> filters = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+    // Emails added while the filters are built, applied once they are ready.
+    private final List<EmployeeCreatedEvent> pending = new ArrayList<>();
+    private final Object lock = new Object();
+
+    private final LongAdder skippedQueries = new LongAdder();
+    private final LongAdder executedQueries = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    public EmployeeEmailFilter(EmployeeRepository employeeRepository, PlatformTransactionManager transactionManager
+            , @Value("${app.employee.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.employeeRepository = employeeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (lock) {
+            ready = false;
+        }
+        long start = System.currentTimeMillis();
+        Map<Long, BloomFilter> newFilters = new ConcurrentHashMap<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (CompanyEmployeeCount count : employeeRepository.countPerCompany()) {
+                newFilters.put(count.companyId(), newFilter(count.count()));
+            }
+            try (Stream<CompanyEmail> emails = employeeRepository.streamAllEmails()) {
+                emails.forEach(email -> newFilters.computeIfAbsent(email.companyId(), id -> newFilter(0))
+                        .add(email.email()));
+            }
+        });
+
+        synchronized (lock) {
+            filters = newFilters;
+            pending.forEach(this::add);
+            pending.clear();
+            ready = true;
+        }
+        LOGGER.info("Email filters built for {} companies in {} ms", newFilters.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * @return false when the company has definitely no employee with this email, true when it might have one.
+     */
+    public boolean mightContain(Long companyId, String email) {
+        if (!ready) {
+            executedQueries.increment();
+            return true;
+        }
+        BloomFilter filter = filters.get(companyId);
+        // All inserts add to the filter, no filter means the company has no employees.
+        boolean result = filter != null && filter.mightContain(email);
+        if (result) {
+            executedQueries.increment();
+        } else {
+            skippedQueries.increment();
+        }
+        return result;
+    }
+
+    /**
+     * Called when the database query, after a 'might contain', showed the email isn't in use.
+     */
+    public void reportFalsePositive() {
+        if (ready) {
+            falsePositives.increment();
+        }
+    }
+
+    @EventListener
+    public void onEmployeeCreated(EmployeeCreatedEvent event) {
+        synchronized (lock) {
+            if (ready) {
+                add(event);
+            } else {
+                pending.add(event);
+            }
+        }
+    }
+
+    @TransactionalEventListener
+    public void onCompanyDeleted(CompanyDeletedEvent event) {
+        filters.remove(event.id());
+    }
+
+    private void add(EmployeeCreatedEvent event) {
+        filters.computeIfAbsent(event.companyId(), id -> newFilter(0))
+                .add(event.employee().email());
+    }
+
+    private BloomFilter newFilter(long employees) {
+        return BloomFilter.create(Math.max(employees * 2, MINIMAL_CAPACITY), falsePositiveRate);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // The worst filter, a filter degrades when more emails are added than it was sized for.
+    double maxFalsePositiveRate() {
+        return filters.values().stream()
+                .mapToDouble(BloomFilter::expectedFalsePositiveRate)
+                .max()
+                .orElse(0);
+    }
+
+    long memoryBytes() {
+        return filters.values().stream()
+                .mapToLong(BloomFilter::memoryBytes)
+                .sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("employee.email.filter.checks", skippedQueries, LongAdder::sum)
+                .tags("result", "skipped")
+                .description("Email checks answered by the filter without a query")
+                .register(registry);
+        FunctionCounter.builder("employee.email.filter.checks", executedQueries, LongAdder::sum)
+                .tags("result", "queried")
+                .description("Email checks that needed a query")
+                .register(registry);
+        FunctionCounter.builder("employee.email.filter.false.positives", falsePositives, LongAdder::sum)
+                .description("Queries where the filter answered 'maybe' but the email was not in use")
+                .register(registry);
+        Gauge.builder("employee.email.filter.expected.fpp", this, EmployeeEmailFilter::maxFalsePositiveRate)
+                .description("The highest expected false positive rate of the company filters")
+                .register(registry);
+        Gauge.builder("employee.email.filter.memory", this, EmployeeEmailFilter::memoryBytes)
+                .baseUnit(BaseUnits.BYTES)
+                .register(registry);
+    }
+}
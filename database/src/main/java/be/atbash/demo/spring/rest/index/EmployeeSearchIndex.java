@@ -0,0 +1,315 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.index;
+
+import be.atbash.demo.spring.rest.dto.EmployeeWithIdDTO;
+import be.atbash.demo.spring.rest.event.CompanyDeletedEvent;
+import be.atbash.demo.spring.rest.event.EmployeeCreatedEvent;
+import be.atbash.demo.spring.rest.exception.BusinessValidationException;
+import be.atbash.demo.spring.rest.exception.DomainErrorCodes;
+import be.atbash.demo.spring.rest.repository.EmployeeRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index of the employees on the trigrams (3 consecutive characters) of the first name, last name
+ * and email. A search intersects the posting lists of the trigrams of the query, verifies the candidates (trigrams
+ * can match in a different order) and keeps the k best scored results. No table scan with LIKE '%x%' needed.
+ * <p>
+ * The index is built at startup and updated after the commit of each created employee. The employees of a deleted
+ * company are removed from the documents immediately, their ids stay in the posting lists (skipped during search)
+ * until the posting lists are compacted. Until the index is built, a search returns no results.
+ */
+@Component
+public class EmployeeSearchIndex implements MeterBinder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EmployeeSearchIndex.class);
+
+    public static final int MIN_TOKEN_LENGTH = 3;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final EmployeeRepository employeeRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // All guarded by the lock
+    private Index index = new Index();
+    private boolean ready;
+    // Changes received while the index is built, applied once it is ready.
+    private final List<Object> pendingEvents = new ArrayList<>();
+
+    public EmployeeSearchIndex(EmployeeRepository employeeRepository, PlatformTransactionManager transactionManager) {
+        this.employeeRepository = employeeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        Index newIndex = new Index();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<EmployeeWithIdDTO> employees = employeeRepository.streamAllDto()) {
+                employees.forEach(newIndex::add);
+            }
+        });
+
+        lock.writeLock().lock();
+        try {
+            index = newIndex;
+            ready = true;
+            pendingEvents.forEach(this::apply);
+            pendingEvents.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        LOGGER.info("Search index built for {} employees in {} ms", newIndex.documents.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener
+    public void onEmployeeCreated(EmployeeCreatedEvent event) {
+        onChange(event);
+    }
+
+    @TransactionalEventListener
+    public void onCompanyDeleted(CompanyDeletedEvent event) {
+        onChange(event);
+    }
+
+    private void onChange(Object event) {
+        lock.writeLock().lock();
+        try {
+            if (ready) {
+                apply(event);
+            } else {
+                pendingEvents.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Object event) {
+        if (event instanceof EmployeeCreatedEvent created) {
+            index.add(created.employee());
+        } else if (event instanceof CompanyDeletedEvent deleted) {
+            index.removeCompany(deleted.name());
+        }
+    }
+
+    /**
+     * @param query one or more words, each word must be found in the first name, last name or email. At least one
+     *              word must have 3 characters.
+     * @param limit maximum number of results
+     * @return the best matching employees, best match first.
+     */
+    public List<EmployeeWithIdDTO> search(String query, int limit) {
+        List<String> tokens = query == null ? List.of() : WHITESPACE.splitAsStream(normalize(query))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toList();
+        if (tokens.stream().noneMatch(token -> token.length() >= MIN_TOKEN_LENGTH)) {
+            throw new BusinessValidationException(DomainErrorCodes.SEARCH_QUERY_TOO_SHORT);
+        }
+
+        lock.readLock().lock();
+        try {
+            return ready ? index.search(tokens, limit) : List.of();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int trigramCount() {
+        lock.readLock().lock();
+        try {
+            return index.postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("employee.search.index.documents", this, EmployeeSearchIndex::size)
+                .register(registry);
+        Gauge.builder("employee.search.index.trigrams", this, EmployeeSearchIndex::trigramCount)
+                .register(registry);
+    }
+
+    static String normalize(String value) {
+        // 'José' is found with 'jose'
+        return DIACRITICS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private record Document(EmployeeWithIdDTO employee, String[] fields) {
+    }
+
+    private record Match(EmployeeWithIdDTO employee, int score) {
+    }
+
+    private static final class Index {
+
+        private final Map<Long, Document> documents = new HashMap<>();
+        private final Map<String, PostingList> postings = new HashMap<>();
+        private final Map<String, List<Long>> employeesPerCompany = new HashMap<>();
+        // Ids in the posting lists whose document is removed.
+        private int staleIds;
+
+        void add(EmployeeWithIdDTO employee) {
+            String[] fields = Stream.of(employee.firstName(), employee.lastName(), employee.email())
+                    .map(value -> value == null ? "" : normalize(value))
+                    .toArray(String[]::new);
+            documents.put(employee.id(), new Document(employee, fields));
+            if (employee.company() != null) {
+                employeesPerCompany.computeIfAbsent(employee.company().name(), name -> new ArrayList<>()).add(employee.id());
+            }
+            addPostings(employee.id(), fields);
+        }
+
+        private void addPostings(long id, String[] fields) {
+            Set<String> trigrams = new HashSet<>();
+            for (String field : fields) {
+                for (int i = 0; i + MIN_TOKEN_LENGTH <= field.length(); i++) {
+                    trigrams.add(field.substring(i, i + MIN_TOKEN_LENGTH));
+                }
+            }
+            trigrams.forEach(trigram -> postings.computeIfAbsent(trigram, t -> new PostingList()).add(id));
+        }
+
+        void removeCompany(String companyName) {
+            List<Long> ids = employeesPerCompany.remove(companyName);
+            if (ids == null) {
+                return;
+            }
+            ids.forEach(documents::remove);
+            staleIds += ids.size();
+            if (staleIds > documents.size() / 4) {
+                compact();
+            }
+        }
+
+        private void compact() {
+            postings.clear();
+            documents.forEach((id, document) -> addPostings(id, document.fields()));
+            staleIds = 0;
+        }
+
+        List<EmployeeWithIdDTO> search(List<String> tokens, int limit) {
+            List<PostingList> lists = new ArrayList<>();
+            for (String token : tokens) {
+                for (int i = 0; i + MIN_TOKEN_LENGTH <= token.length(); i++) {
+                    PostingList list = postings.get(token.substring(i, i + MIN_TOKEN_LENGTH));
+                    if (list == null) {
+                        return List.of();  // No employee has this trigram
+                    }
+                    lists.add(list);
+                }
+            }
+            lists.sort(Comparator.comparingInt(PostingList::size));
+
+            // Lowest score (and highest id) at the head, so that it is removed when we have more than 'limit' results.
+            PriorityQueue<Match> best = new PriorityQueue<>(Comparator.comparingInt(Match::score)
+                    .thenComparing(match -> match.employee().id(), Comparator.reverseOrder()));
+            PostingList smallest = lists.get(0);
+            for (int i = 0; i < smallest.size(); i++) {
+                long id = smallest.get(i);
+                if (!inAll(lists, id)) {
+                    continue;
+                }
+                Document document = documents.get(id);
+                if (document == null) {
+                    continue;  // removed
+                }
+                int score = score(document, tokens);
+                if (score > 0) {
+                    best.add(new Match(document.employee(), score));
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+            }
+
+            List<EmployeeWithIdDTO> result = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                result.add(best.poll().employee());
+            }
+            Collections.reverse(result);
+            return result;
+        }
+
+        private static boolean inAll(List<PostingList> lists, long id) {
+            for (int i = 1; i < lists.size(); i++) {
+                if (!lists.get(i).contains(id)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Per token: 3 for an exact field, 2 for the start of a field, 1 when contained. 0 when a token isn't found.
+        private static int score(Document document, List<String> tokens) {
+            int total = 0;
+            for (String token : tokens) {
+                int tokenScore = Arrays.stream(document.fields())
+                        .mapToInt(field -> field.equals(token) ? 3 : field.startsWith(token) ? 2 : field.contains(token) ? 1 : 0)
+                        .max()
+                        .orElse(0);
+                if (tokenScore == 0) {
+                    return 0;
+                }
+                total += tokenScore;
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.json;
+
+import be.atbash.demo.spring.rest.dto.CompanyDTO;
+import be.atbash.demo.spring.rest.dto.CompanyDTOWithId;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Serializers and deserializers for CompanyDTO and CompanyDTOWithId.
+ */
+public final class CompanyDTOJson {
+
+    static final SerializedString ID = new SerializedString("id");
+    static final SerializedString NAME = new SerializedString("name");
+
+    private CompanyDTOJson() {
+    }
+
+    public static class CompanySerializer extends StdSerializer<CompanyDTO> {
+
+        public CompanySerializer() {
+            super(CompanyDTO.class);
+        }
+
+        @Override
+        public void serialize(CompanyDTO value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(value);
+            JsonSupport.writeString(gen, NAME, value.name());
+            gen.writeEndObject();
+        }
+    }
+
+    public static class CompanyDeserializer extends StdDeserializer<CompanyDTO> {
+
+        public CompanyDeserializer() {
+            super(CompanyDTO.class);
+        }
+
+        @Override
+        public CompanyDTO deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            String name = null;
+            for (String field = JsonSupport.firstField(p, ctxt, CompanyDTO.class); field != null; field = p.nextFieldName()) {
+                p.nextToken();
+                if ("name".equals(field)) {
+                    name = p.getValueAsString();
+                } else {
+                    p.skipChildren();
+                }
+            }
+            return new CompanyDTO(name);
+        }
+    }
+
+    public static class CompanyWithIdSerializer extends StdSerializer<CompanyDTOWithId> {
+
+        public CompanyWithIdSerializer() {
+            super(CompanyDTOWithId.class);
+        }
+
+        @Override
+        public void serialize(CompanyDTOWithId value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(value);
+            JsonSupport.writeNumber(gen, ID, value.id());
+            JsonSupport.writeString(gen, NAME, value.name());
+            gen.writeEndObject();
+        }
+    }
+
+    public static class CompanyWithIdDeserializer extends StdDeserializer<CompanyDTOWithId> {
+
+        public CompanyWithIdDeserializer() {
+            super(CompanyDTOWithId.class);
+        }
+
+        @Override
+        public CompanyDTOWithId deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            Long id = null;
+            String name = null;
+            for (String field = JsonSupport.firstField(p, ctxt, CompanyDTOWithId.class); field != null; field = p.nextFieldName()) {
+                p.nextToken();
+                switch (field) {
+                    case "id" -> id = _parseLong(p, ctxt, Long.class);
+                    case "name" -> name = p.getValueAsString();
+                    default -> p.skipChildren();
+                }
+            }
+            return new CompanyDTOWithId(id, name);
+        }
+    }
+}
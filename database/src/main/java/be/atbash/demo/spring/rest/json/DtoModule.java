@@ -0,0 +1,46 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.json;
+
+import be.atbash.demo.spring.rest.dto.CompanyDTO;
+import be.atbash.demo.spring.rest.dto.CompanyDTOWithId;
+import be.atbash.demo.spring.rest.dto.EmployeeWithIdDTO;
+import be.atbash.demo.spring.rest.dto.EmployeeWithoutIdDTO;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hand-written serializers and deserializers for the DTOs of the large responses and requests. They write directly
+ * to the generator with pre-encoded field names instead of going through the introspected record properties.
+ * <p>
+ * Spring Boot registers this Module bean in all its ObjectMappers (JSON, CBOR and Smile). Settings that change the
+ * properties of these DTOs, like the property inclusion or a naming strategy, are not applied by these serializers.
+ */
+@Component
+public class DtoModule extends SimpleModule {
+
+    public DtoModule() {
+        super(DtoModule.class.getSimpleName());
+        addSerializer(CompanyDTO.class, new CompanyDTOJson.CompanySerializer());
+        addDeserializer(CompanyDTO.class, new CompanyDTOJson.CompanyDeserializer());
+        addSerializer(CompanyDTOWithId.class, new CompanyDTOJson.CompanyWithIdSerializer());
+        addDeserializer(CompanyDTOWithId.class, new CompanyDTOJson.CompanyWithIdDeserializer());
+        addSerializer(EmployeeWithIdDTO.class, new EmployeeDTOJson.EmployeeWithIdSerializer());
+        addDeserializer(EmployeeWithIdDTO.class, new EmployeeDTOJson.EmployeeWithIdDeserializer());
+        addSerializer(EmployeeWithoutIdDTO.class, new EmployeeDTOJson.EmployeeWithoutIdSerializer());
+        addDeserializer(EmployeeWithoutIdDTO.class, new EmployeeDTOJson.EmployeeWithoutIdDeserializer());
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.json;
+
+import be.atbash.demo.spring.rest.dto.CompanyDTO;
+import be.atbash.demo.spring.rest.dto.EmployeeWithIdDTO;
+import be.atbash.demo.spring.rest.dto.EmployeeWithoutIdDTO;
+import be.atbash.demo.spring.rest.model.Gender;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Serializers and deserializers for EmployeeWithIdDTO and EmployeeWithoutIdDTO, the bulk of the list responses and
+ * of the batch import.
+ */
+public final class EmployeeDTOJson {
+
+    private static final SerializedString EMAIL = new SerializedString("email");
+    private static final SerializedString FIRST_NAME = new SerializedString("firstName");
+    private static final SerializedString LAST_NAME = new SerializedString("lastName");
+    private static final SerializedString HIRE_DATE = new SerializedString("hireDate");
+    private static final SerializedString GENDER = new SerializedString("gender");
+    private static final SerializedString COMPANY = new SerializedString("company");
+
+    // Called directly, the lookup of ctxt.readValue() for each employee is more expensive than the deserialization.
+    private static final CompanyDTOJson.CompanyDeserializer COMPANY_DESERIALIZER = new CompanyDTOJson.CompanyDeserializer();
+
+    private EmployeeDTOJson() {
+    }
+
+    public static class EmployeeWithIdSerializer extends StdSerializer<EmployeeWithIdDTO> {
+
+        public EmployeeWithIdSerializer() {
+            super(EmployeeWithIdDTO.class);
+        }
+
+        @Override
+        public void serialize(EmployeeWithIdDTO value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(value);
+            JsonSupport.writeNumber(gen, CompanyDTOJson.ID, value.id());
+            writeFields(gen, provider, value.email(), value.firstName(), value.lastName(), value.hireDate(), value.gender(), value.company());
+            gen.writeEndObject();
+        }
+    }
+
+    public static class EmployeeWithoutIdSerializer extends StdSerializer<EmployeeWithoutIdDTO> {
+
+        public EmployeeWithoutIdSerializer() {
+            super(EmployeeWithoutIdDTO.class);
+        }
+
+        @Override
+        public void serialize(EmployeeWithoutIdDTO value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(value);
+            writeFields(gen, provider, value.email(), value.firstName(), value.lastName(), value.hireDate(), value.gender(), value.company());
+            gen.writeEndObject();
+        }
+    }
+
+    private static void writeFields(JsonGenerator gen, SerializerProvider provider, String email, String firstName, String lastName
+            , LocalDate hireDate, Gender gender, CompanyDTO company) throws IOException {
+        JsonSupport.writeString(gen, EMAIL, email);
+        JsonSupport.writeString(gen, FIRST_NAME, firstName);
+        JsonSupport.writeString(gen, LAST_NAME, lastName);
+        JsonSupport.writeDate(gen, provider, HIRE_DATE, hireDate);
+        JsonSupport.writeEnum(gen, provider, GENDER, gender);
+        gen.writeFieldName(COMPANY);
+        if (company == null) {
+            gen.writeNull();
+        } else {
+            gen.writeStartObject(company);
+            JsonSupport.writeString(gen, CompanyDTOJson.NAME, company.name());
+            gen.writeEndObject();
+        }
+    }
+
+    public static class EmployeeWithIdDeserializer extends StdDeserializer<EmployeeWithIdDTO> {
+
+        public EmployeeWithIdDeserializer() {
+            super(EmployeeWithIdDTO.class);
+        }
+
+        @Override
+        public EmployeeWithIdDTO deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            Fields fields = new Fields();
+            for (String field = JsonSupport.firstField(p, ctxt, EmployeeWithIdDTO.class); field != null; field = p.nextFieldName()) {
+                p.nextToken();
+                if ("id".equals(field)) {
+                    fields.id = _parseLong(p, ctxt, Long.class);
+                } else {
+                    fields.read(field, p, ctxt);
+                }
+            }
+            return new EmployeeWithIdDTO(fields.id, fields.email, fields.firstName, fields.lastName, fields.hireDate, fields.gender, fields.company);
+        }
+    }
+
+    public static class EmployeeWithoutIdDeserializer extends StdDeserializer<EmployeeWithoutIdDTO> {
+
+        public EmployeeWithoutIdDeserializer() {
+            super(EmployeeWithoutIdDTO.class);
+        }
+
+        @Override
+        public EmployeeWithoutIdDTO deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            Fields fields = new Fields();
+            for (String field = JsonSupport.firstField(p, ctxt, EmployeeWithoutIdDTO.class); field != null; field = p.nextFieldName()) {
+                p.nextToken();
+                fields.read(field, p, ctxt);
+            }
+            return new EmployeeWithoutIdDTO(fields.email, fields.firstName, fields.lastName, fields.hireDate, fields.gender, fields.company);
+        }
+    }
+
+    private static class Fields {
+        private Long id;
+        private String email;
+        private String firstName;
+        private String lastName;
+        private LocalDate hireDate;
+        private Gender gender;
+        private CompanyDTO company;
+
+        // The parser is on the value of the field.
+        void read(String field, JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.hasToken(JsonToken.VALUE_NULL)) {
+                return;  // all fields are null by default
+            }
+            switch (field) {
+                case "email" -> email = p.getValueAsString();
+                case "firstName" -> firstName = p.getValueAsString();
+                case "lastName" -> lastName = p.getValueAsString();
+                case "hireDate" -> hireDate = JsonSupport.readDate(p, ctxt);
+                case "gender" -> gender = JsonSupport.readEnum(p, ctxt, Gender.class);
+                case "company" -> company = COMPANY_DESERIALIZER.deserialize(p, ctxt);
+                default -> p.skipChildren();  // unknown properties are ignored, like Spring Boot configures Jackson
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * Helpers for the hand-written serializers and deserializers. They produce the same result as the default handling
+ * of Jackson for records with the settings of Spring Boot (nulls included, ISO dates and enum names) and fall back
+ * to the default handling when the application changed those settings.
+ */
+final class JsonSupport {
+
+    private JsonSupport() {
+    }
+
+    static void writeString(JsonGenerator gen, SerializableString name, String value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(value);
+        }
+    }
+
+    static void writeNumber(JsonGenerator gen, SerializableString name, Long value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    static void writeDate(JsonGenerator gen, SerializerProvider provider, SerializableString name, LocalDate value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else if (provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            provider.defaultSerializeValue(value, gen);
+        } else {
+            // Same as DateTimeFormatter.ISO_LOCAL_DATE used by the JavaTimeModule, without the formatter.
+            gen.writeString(value.toString());
+        }
+    }
+
+    static void writeEnum(JsonGenerator gen, SerializerProvider provider, SerializableString name, Enum<?> value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else if (provider.isEnabled(SerializationFeature.WRITE_ENUMS_USING_TO_STRING) || provider.isEnabled(SerializationFeature.WRITE_ENUMS_USING_INDEX)) {
+            provider.defaultSerializeValue(value, gen);
+        } else {
+            gen.writeString(value.name());
+        }
+    }
+
+    /**
+     * Positions the parser on the value of the first field.
+     *
+     * @return the name of the first field, null for an empty object.
+     */
+    static String firstField(JsonParser p, DeserializationContext ctxt, Class<?> type) throws IOException {
+        if (p.isExpectedStartObjectToken()) {
+            return p.nextFieldName();
+        }
+        if (p.hasToken(JsonToken.FIELD_NAME)) {
+            // Happens when the start of the object is already consumed, like with buffered content.
+            return p.currentName();
+        }
+        ctxt.handleUnexpectedToken(type, p);
+        return null;  // handleUnexpectedToken always throws for an object
+    }
+
+    static LocalDate readDate(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.hasToken(JsonToken.VALUE_STRING)) {
+            String text = p.getText();
+            if (isPlainIsoDate(text)) {
+                try {
+                    return LocalDate.of(digits(text, 0, 4), digits(text, 5, 7), digits(text, 8, 10));
+                } catch (DateTimeException e) {
+                    return (LocalDate) ctxt.handleWeirdStringValue(LocalDate.class, text, e.getMessage());
+                }
+            }
+        }
+        // null, other representations like [2020,1,1], and strings that aren't a plain date like "" (coerced to null)
+        return ctxt.readValue(p, LocalDate.class);
+    }
+
+    // yyyy-MM-dd, parsing it with DateTimeFormatter.ISO_LOCAL_DATE costs more than the rest of the employee.
+    private static boolean isPlainIsoDate(String text) {
+        if (text.length() != 10 || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return false;
+        }
+        for (int idx = 0; idx < 10; idx++) {
+            char c = text.charAt(idx);
+            if (idx != 4 && idx != 7 && (c < '0' || c > '9')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int digits(String text, int start, int end) {
+        int result = 0;
+        for (int idx = start; idx < end; idx++) {
+            result = result * 10 + (text.charAt(idx) - '0');
+        }
+        return result;
+    }
+
+    static <E extends Enum<E>> E readEnum(JsonParser p, DeserializationContext ctxt, Class<E> type) throws IOException {
+        if (p.hasToken(JsonToken.VALUE_STRING)) {
+            String text = p.getText();
+            try {
+                return Enum.valueOf(type, text);
+            } catch (IllegalArgumentException e) {
+                return type.cast(ctxt.handleWeirdStringValue(type, text, "not one of the values accepted for Enum class"));
+            }
+        }
+        return ctxt.readValue(p, type);
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.mapper;
+
+import be.atbash.demo.spring.rest.dto.ChangeDTO;
+import be.atbash.demo.spring.rest.model.ChangeLog;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+
+@Component
+public class ChangeLogMapperService {
+
+    private final ObjectMapper objectMapper;
+
+    public ChangeLogMapperService(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public ChangeDTO asDTO(ChangeLog changeLog) {
+        JsonNode data;
+        try {
+            data = objectMapper.readTree(changeLog.getPayload());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new ChangeDTO(changeLog.getEntityType(), changeLog.getChangeType(), changeLog.getEntityId()
+                , changeLog.getCompanyId(), changeLog.getChangedAt(), data);
+    }
+}
@@ -33,6 +33,10 @@ public class Company implements Serializable {
     @Column(name = "name", unique = true, nullable = false)
     private String name;
 
+    // Set when the company is deleted asynchronously, the company is no longer visible but the employees are still being removed.
+    @Column(name = "deleting", nullable = false)
+    private boolean deleting;
+
     public Long getId() {
         return id;
     }
@@ -49,6 +53,14 @@ public class Company implements Serializable {
         this.name = name;
     }
 
+    public boolean isDeleting() {
+        return deleting;
+    }
+
+    public void setDeleting(boolean deleting) {
+        this.deleting = deleting;
+    }
+
     // equals and hashCode should be on the natural key, name in this case.
     @Override
     public final boolean equals(Object o) {
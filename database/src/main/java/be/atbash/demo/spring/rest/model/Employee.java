@@ -21,15 +21,19 @@ import java.io.Serializable;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "employee")  // Not strictly needed, but clear because database should not be generated from the code
+@Table(name = "employee"  // Not strictly needed, but clear because database should not be generated from the code
+        , uniqueConstraints = @UniqueConstraint(name = Employee.EMAIL_CONSTRAINT, columnNames = "email"))
 public class Employee implements Serializable {
 
+    // Named so that a violation of this constraint can be recognised, see EmployeeService.
+    public static final String EMAIL_CONSTRAINT = "uk_employee_email";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id")
     private Long id;
 
-    @Column(name = "email", unique = true, nullable = false)
+    @Column(name = "email", nullable = false)
     private String email;
 
     @Column(name = "first_name", nullable = false)
@@ -46,7 +50,7 @@ public class Employee implements Serializable {
     @Enumerated(EnumType.STRING)  // Should never ordinal as that would mean that changing the order of enum values changes the data.
     private Gender gender;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)  // Default is EAGER for ToOne, load it explicitly with an EntityGraph when needed.
     @JoinColumn(name = "company_id")
     private Company company;
 
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.repository;
+
+import be.atbash.demo.spring.rest.model.ChangeLog;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.metamodel.mapping.AttributeMapping;
+import org.hibernate.type.descriptor.ValueBinder;
+import org.hibernate.type.descriptor.WrapperOptions;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Inserts the change log records with JDBC batches. Through JPA, each insert of an entity with an IDENTITY id is
+ * executed on its own.
+ */
+@Repository
+public class ChangeLogJdbcRepository {
+
+    private static final String INSERT_CHANGE = "INSERT INTO change_log (entity_type, change_type, entity_id, company_id, changed_at, payload) VALUES (?, ?, ?, ?, ?, ?)";
+    // Aligned with 'hibernate.jdbc.batch_size'.
+    private static final int BATCH_SIZE = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ValueBinder<Instant> instantBinder;
+    private final WrapperOptions wrapperOptions;
+
+    @SuppressWarnings("unchecked")
+    public ChangeLogJdbcRepository(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Bind the timestamp like Hibernate does for ChangeLog.changedAt (like UTC or with time zone, depending on
+        // the database), so that it is read back as the same instant.
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        AttributeMapping changedAt = sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(ChangeLog.class)
+                .findAttributeMapping("changedAt");
+        this.instantBinder = (ValueBinder<Instant>) changedAt.getSingleJdbcMapping().getJdbcValueBinder();
+        this.wrapperOptions = sessionFactory.getWrapperOptions();
+    }
+
+    public void insertAll(List<ChangeLog> changes) {
+        jdbcTemplate.batchUpdate(INSERT_CHANGE, changes, BATCH_SIZE, (ps, change) -> {
+            ps.setString(1, change.getEntityType().name());
+            ps.setString(2, change.getChangeType().name());
+            ps.setLong(3, change.getEntityId());
+            ps.setLong(4, change.getCompanyId());
+            instantBinder.bind(ps, change.getChangedAt(), 5, wrapperOptions);
+            ps.setString(6, change.getPayload());
+        });
+    }
+}
@@ -20,6 +20,8 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface CompanyRepository extends JpaRepository<Company, Long> {
@@ -27,4 +29,13 @@ public interface CompanyRepository extends JpaRepository<Company, Long> {
     // Hibernate query explicitly defined to make it easier to read
     @Query("SELECT c FROM Company c WHERE c.name = :name")
     Optional<Company> findByName(@Param("name") String name);
+
+    @Query("SELECT c FROM Company c WHERE c.deleting = true")
+    List<Company> findAllDeleting();
+
+    @Query("SELECT c.name FROM Company c WHERE c.deleting = false")
+    List<String> findAllNames();
+
+    @Query("SELECT c FROM Company c WHERE c.name IN :names")
+    List<Company> findAllByNames(@Param("names") Collection<String> names);
 }
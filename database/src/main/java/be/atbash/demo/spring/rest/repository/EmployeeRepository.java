@@ -15,27 +15,86 @@
  */
 package be.atbash.demo.spring.rest.repository;
 
+import be.atbash.demo.spring.rest.dto.EmployeeWithIdDTO;
 import be.atbash.demo.spring.rest.model.Employee;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface EmployeeRepository extends JpaRepository<Employee, Long> {
 
     // Hibernate query explicitly defined to make it easier to read
 
+    // The company is lazy loaded, the EntityGraph loads it within the same query when we really need the entities.
     @Query("SELECT e FROM Employee e WHERE e.company.id = :companyId")
+    @EntityGraph(attributePaths = "company")
     List<Employee> findAllByCompanyId(@Param("companyId") Long companyId);
 
+    // Read-only listings select directly into the DTO: no entities, no dirty checking and no mapping afterwards.
+    @Query("SELECT new be.atbash.demo.spring.rest.dto.EmployeeWithIdDTO(e.id, e.email, e.firstName, e.lastName, e.hireDate, e.gender, c.name)" +
+            " FROM Employee e JOIN e.company c WHERE c.id = :companyId ORDER BY e.id")
+    List<EmployeeWithIdDTO> findAllDtoByCompanyId(@Param("companyId") Long companyId);
+
+    // Keyset pagination: seek on the id instead of using an offset so that each page is an index range scan.
+    @Query("SELECT new be.atbash.demo.spring.rest.dto.EmployeeWithIdDTO(e.id, e.email, e.firstName, e.lastName, e.hireDate, e.gender, c.name)" +
+            " FROM Employee e JOIN e.company c WHERE c.id = :companyId AND e.id > :afterId ORDER BY e.id")
+    List<EmployeeWithIdDTO> findPageDtoByCompanyId(@Param("companyId") Long companyId, @Param("afterId") Long afterId, Limit limit);
+
+    // The caller must close the Stream (try-with-resources) and must be within a transaction.
+    // Fetch size is only honoured by MySQL when 'useCursorFetch=true' is part of the JDBC URL.
+    @Query("SELECT new be.atbash.demo.spring.rest.dto.EmployeeWithIdDTO(e.id, e.email, e.firstName, e.lastName, e.hireDate, e.gender, c.name)" +
+            " FROM Employee e JOIN e.company c WHERE c.id = :companyId ORDER BY e.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<EmployeeWithIdDTO> streamAllDtoByCompanyId(@Param("companyId") Long companyId);
+
+    // The caller must close the Stream (try-with-resources) and must be within a transaction.
+    @Query("SELECT new be.atbash.demo.spring.rest.dto.EmployeeWithIdDTO(e.id, e.email, e.firstName, e.lastName, e.hireDate, e.gender, c.name)" +
+            " FROM Employee e JOIN e.company c WHERE c.deleting = false ORDER BY e.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<EmployeeWithIdDTO> streamAllDto();
+
     @Query("SELECT e FROM Employee e WHERE e.email = :email AND e.company.id = :companyId")
     Optional<Employee> findByEmail(@Param("email") String email, @Param("companyId") Long companyId);
 
+    // Email is unique over all companies (see unique constraint), so no company restriction here.
+    @Query("SELECT e.email FROM Employee e WHERE e.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT new be.atbash.demo.spring.rest.repository.CompanyEmployeeCount(e.company.id, COUNT(e)) FROM Employee e GROUP BY e.company.id")
+    List<CompanyEmployeeCount> countPerCompany();
+
+    @Query("SELECT new be.atbash.demo.spring.rest.repository.EmployeeStatsRow(e.company.id, e.gender, YEAR(e.hireDate), COUNT(e))" +
+            " FROM Employee e GROUP BY e.company.id, e.gender, YEAR(e.hireDate)")
+    List<EmployeeStatsRow> countPerCompanyGenderAndHireYear();
+
+    @Query("SELECT e.id FROM Employee e WHERE e.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // The caller must close the Stream (try-with-resources) and must be within a transaction.
+    @Query("SELECT new be.atbash.demo.spring.rest.repository.CompanyEmail(e.company.id, e.email) FROM Employee e")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<CompanyEmail> streamAllEmails();
+
+    @Query("SELECT COUNT(e) FROM Employee e WHERE e.company.id = :companyId")
+    long countByCompanyId(@Param("companyId") Long companyId);
+
+    // Used to delete the employees in chunks, see deleteAllByIdInBatch
+    @Query("SELECT e.id FROM Employee e WHERE e.company.id = :companyId ORDER BY e.id")
+    List<Long> findIdsByCompanyId(@Param("companyId") Long companyId, Limit limit);
+
     @Query("DELETE FROM Employee e WHERE e.company.id = :companyId")
     @Modifying  // required, mainly to make it explicit and that no entities should be returned
     void deleteAllByCompanyId(@Param("companyId") Long companyId);
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.service;
+
+import be.atbash.demo.spring.rest.dto.ChangeDTO;
+import be.atbash.demo.spring.rest.dto.ChangesDTO;
+import be.atbash.demo.spring.rest.dto.CompanyDTOWithId;
+import be.atbash.demo.spring.rest.event.CompanyCreatedEvent;
+import be.atbash.demo.spring.rest.event.CompanyDeletedEvent;
+import be.atbash.demo.spring.rest.event.EmployeeCreatedEvent;
+import be.atbash.demo.spring.rest.mapper.ChangeLogMapperService;
+import be.atbash.demo.spring.rest.model.ChangeEntityType;
+import be.atbash.demo.spring.rest.model.ChangeLog;
+import be.atbash.demo.spring.rest.model.ChangeType;
+import be.atbash.demo.spring.rest.repository.ChangeLogJdbcRepository;
+import be.atbash.demo.spring.rest.repository.ChangeLogRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Append-only change log so that other systems can synchronize incrementally: they keep the 'next' token of the
+ * response and ask only for the changes since that token.
+ * <p>
+ * The changes are collected by event listeners during the transaction of the change itself and written just before
+ * it commits, in one JDBC batch, so the log never contains a change that was rolled back. The id and the timestamp
+ * are assigned at that moment. A change with a lower id can still become visible after one with a higher id, so only
+ * changes older than the settle time are returned, and the changes never go past a missing id (gap) until that gap
+ * was seen for longer than the settle time. After that, the gap is considered a rolled back transaction.
+ * A deleted company implies that all its employees are deleted, there is no change per employee.
+ */
+@Service
+@Transactional
+public class ChangeLogService {
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    // Gaps seen longer ago are forgotten, a consumer that is still before it waits the settle time again.
+    private static final Duration GAP_RETENTION = Duration.ofHours(1);
+
+    private final ChangeLogRepository changeLogRepository;
+    private final ChangeLogMapperService changeLogMapperService;
+    private final ObjectMapper objectMapper;
+    private final ChangeLogJdbcRepository changeLogJdbcRepository;
+    private final Duration settleTime;
+    private final Clock clock;
+
+    // First missing id of a gap -> when it was seen the first time.
+    private final ConcurrentMap<Long, Instant> gapsFirstSeen = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ChangeLogService(ChangeLogRepository changeLogRepository, ChangeLogMapperService changeLogMapperService, ObjectMapper objectMapper
+            , ChangeLogJdbcRepository changeLogJdbcRepository, @Value("${app.changes.settle-time:5s}") Duration settleTime) {
+        this(changeLogRepository, changeLogMapperService, objectMapper, changeLogJdbcRepository, settleTime, Clock.systemUTC());
+    }
+
+    ChangeLogService(ChangeLogRepository changeLogRepository, ChangeLogMapperService changeLogMapperService, ObjectMapper objectMapper
+            , ChangeLogJdbcRepository changeLogJdbcRepository, Duration settleTime, Clock clock) {
+        this.changeLogRepository = changeLogRepository;
+        this.changeLogMapperService = changeLogMapperService;
+        this.objectMapper = objectMapper;
+        this.changeLogJdbcRepository = changeLogJdbcRepository;
+        this.settleTime = settleTime;
+        this.clock = clock;
+    }
+
+    @Transactional(readOnly = true)
+    public ChangesDTO getChanges(String since, int limit) {
+        long afterId = CursorCodec.decode(since);
+        int pageSize = Math.min(Math.max(limit, 1), MAX_LIMIT);
+        Instant now = clock.instant();
+        gapsFirstSeen.values().removeIf(firstSeen -> firstSeen.isBefore(now.minus(GAP_RETENTION)));
+
+        // Read one record more than requested, so that we know if there are more changes.
+        List<ChangeLog> changes = changeLogRepository.findChanges(afterId, now.minus(settleTime), Limit.of(pageSize + 1));
+
+        List<ChangeLog> page = new ArrayList<>(Math.min(changes.size(), pageSize));
+        long lastId = afterId;
+        boolean more = false;
+        for (ChangeLog change : changes) {
+            if (change.getId() != lastId + 1 && !isGapSettled(lastId + 1, now)) {
+                // The change(s) before this one may still commit, the client asks again later.
+                break;
+            }
+            if (page.size() == pageSize) {
+                more = true;
+                break;
+            }
+            page.add(change);
+            lastId = change.getId();
+        }
+        List<ChangeDTO> result = page.stream()
+                .map(changeLogMapperService::asDTO)
+                .toList();
+        return new ChangesDTO(result, CursorCodec.encode(lastId), more);
+    }
+
+    private boolean isGapSettled(long firstMissingId, Instant now) {
+        Instant firstSeen = gapsFirstSeen.computeIfAbsent(firstMissingId, id -> now);
+        return !firstSeen.isAfter(now.minus(settleTime));
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onCompanyCreated(CompanyCreatedEvent event) {
+        record(ChangeEntityType.COMPANY, ChangeType.CREATED, event.id(), event.id(), new CompanyDTOWithId(event.id(), event.name()));
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onCompanyDeleted(CompanyDeletedEvent event) {
+        record(ChangeEntityType.COMPANY, ChangeType.DELETED, event.id(), event.id(), new CompanyDTOWithId(event.id(), event.name()));
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onEmployeeCreated(EmployeeCreatedEvent event) {
+        record(ChangeEntityType.EMPLOYEE, ChangeType.CREATED, event.employee().id(), event.companyId(), event.employee());
+    }
+
+    private void record(ChangeEntityType entityType, ChangeType changeType, Long entityId, Long companyId, Object data) {
+        ChangeLog changeLog = new ChangeLog();
+        changeLog.setEntityType(entityType);
+        changeLog.setChangeType(changeType);
+        changeLog.setEntityId(entityId);
+        changeLog.setCompanyId(companyId);
+        try {
+            changeLog.setPayload(objectMapper.writeValueAsString(data));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        pendingChanges().changes.add(changeLog);
+    }
+
+    private PendingChanges pendingChanges() {
+        // Not saved through JPA here, an IDENTITY insert is executed immediately and breaks the JDBC batching of the
+        // changes themselves (like the bulk import of employees).
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        return pending;
+    }
+
+    /**
+     * The changes of one transaction.
+     */
+    private final class PendingChanges implements TransactionSynchronization {
+
+        private final List<ChangeLog> changes = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (changes.isEmpty()) {
+                return;
+            }
+            Instant changedAt = clock.instant();
+            changes.forEach(changeLog -> changeLog.setChangedAt(changedAt));
+            changeLogJdbcRepository.insertAll(changes);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ChangeLogService.this);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.service;
+
+import be.atbash.demo.spring.rest.dto.CompanyDeletionStatusDTO;
+import be.atbash.demo.spring.rest.dto.DeletionState;
+import be.atbash.demo.spring.rest.event.CompanyDeletedEvent;
+import be.atbash.demo.spring.rest.event.CompanyPurgedEvent;
+import be.atbash.demo.spring.rest.exception.BusinessValidationException;
+import be.atbash.demo.spring.rest.exception.DomainErrorCodes;
+import be.atbash.demo.spring.rest.model.Company;
+import be.atbash.demo.spring.rest.repository.CompanyRepository;
+import be.atbash.demo.spring.rest.repository.EmployeeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes a company with many employees without a long-running transaction. The company is marked as deleting (and
+ * is from then on invisible for the application), and the employees are removed in chunks, each in its own short
+ * transaction, in the background. Finally, the company record itself is removed.
+ */
+@Service
+public class CompanyDeletionService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompanyDeletionService.class);
+
+    // How long the status of a finished deletion can be retrieved.
+    private static final Duration STATUS_RETENTION = Duration.ofHours(1);
+
+    private final CompanyRepository companyRepository;
+    private final EmployeeRepository employeeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+    private final int chunkSize;
+
+    private final Map<String, DeletionProgress> deletions = new ConcurrentHashMap<>();
+
+    public CompanyDeletionService(CompanyRepository companyRepository, EmployeeRepository employeeRepository
+            , ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager
+            , @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor
+            , @Value("${app.company.deletion.chunk-size:500}") int chunkSize) {
+        this.companyRepository = companyRepository;
+        this.employeeRepository = employeeRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.taskExecutor = taskExecutor;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @param name the name of the company
+     * @return the status of the deletion or null when the company doesn't exist (idempotent like the synchronous delete)
+     */
+    @Transactional
+    public CompanyDeletionStatusDTO startDeletion(String name) {
+        removeExpiredStatuses();
+        Company company = companyRepository.findByName(name).orElse(null);
+        if (company == null) {
+            return null;
+        }
+        if (company.isDeleting()) {
+            // Already started, just report the progress.
+            return getStatus(name);
+        }
+
+        company.setDeleting(true);
+        DeletionProgress progress = new DeletionProgress(company.getId(), name, employeeRepository.countByCompanyId(company.getId()));
+        deletions.put(name, progress);
+
+        // For the rest of the application, the company is gone.
+        eventPublisher.publishEvent(new CompanyDeletedEvent(company.getId(), name));
+
+        afterCommit(() -> taskExecutor.execute(() -> purge(progress)));
+        return progress.asDTO();
+    }
+
+    public CompanyDeletionStatusDTO getStatus(String name) {
+        DeletionProgress progress = deletions.get(name);
+        if (progress == null) {
+            throw new BusinessValidationException(DomainErrorCodes.COMPANY_DELETION_NOT_FOUND);
+        }
+        return progress.asDTO();
+    }
+
+    /**
+     * Continues the deletions that were interrupted by a stop of the application.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeDeletions() {
+        List<Company> companies = transactionTemplate.execute(status -> companyRepository.findAllDeleting());
+        for (Company company : companies) {
+            LOGGER.info("Resuming the deletion of company '{}'", company.getName());
+            long remaining = transactionTemplate.execute(status -> employeeRepository.countByCompanyId(company.getId()));
+            DeletionProgress progress = new DeletionProgress(company.getId(), company.getName(), remaining);
+            deletions.put(company.getName(), progress);
+            taskExecutor.execute(() -> purge(progress));
+        }
+    }
+
+    void purge(DeletionProgress progress) {
+        try {
+            int deleted;
+            do {
+                // Each chunk in its own transaction so that locks are held only for a short time.
+                deleted = transactionTemplate.execute(status -> {
+                    List<Long> ids = employeeRepository.findIdsByCompanyId(progress.companyId, Limit.of(chunkSize));
+                    if (!ids.isEmpty()) {
+                        employeeRepository.deleteAllByIdInBatch(ids);
+                    }
+                    return ids.size();
+                });
+                progress.deletedEmployees.addAndGet(deleted);
+            } while (deleted > 0);
+
+            transactionTemplate.executeWithoutResult(status -> {
+                companyRepository.deleteById(progress.companyId);
+                eventPublisher.publishEvent(new CompanyPurgedEvent(progress.companyId, progress.name));
+            });
+            progress.finish(DeletionState.COMPLETED);
+        } catch (RuntimeException e) {
+            // The company stays marked as deleting, the deletion is resumed at the next start of the application.
+            LOGGER.error("Deletion of company '{}' failed", progress.name, e);
+            progress.finish(DeletionState.FAILED);
+        }
+    }
+
+    private void removeExpiredStatuses() {
+        Instant limit = Instant.now().minus(STATUS_RETENTION);
+        deletions.values().removeIf(progress -> progress.finishedAt != null && progress.finishedAt.isBefore(limit));
+    }
+
+    private static void afterCommit(Runnable runnable) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    runnable.run();
+                }
+            });
+        } else {
+            runnable.run();
+        }
+    }
+
+    static final class DeletionProgress {
+
+        private final Long companyId;
+        private final String name;
+        private final long totalEmployees;
+        private final AtomicLong deletedEmployees = new AtomicLong();
+        private volatile DeletionState state = DeletionState.IN_PROGRESS;
+        private volatile Instant finishedAt;
+
+        DeletionProgress(Long companyId, String name, long totalEmployees) {
+            this.companyId = companyId;
+            this.name = name;
+            this.totalEmployees = totalEmployees;
+        }
+
+        void finish(DeletionState state) {
+            this.state = state;
+            this.finishedAt = Instant.now();
+        }
+
+        CompanyDeletionStatusDTO asDTO() {
+            return new CompanyDeletionStatusDTO(name, state, totalEmployees, deletedEmployees.get());
+        }
+    }
+}
@@ -16,64 +16,138 @@
 package be.atbash.demo.spring.rest.service;
 
 
+import be.atbash.demo.spring.rest.cache.CompanyCache;
+import be.atbash.demo.spring.rest.event.CompanyCreatedEvent;
+import be.atbash.demo.spring.rest.event.CompanyDeletedEvent;
+import be.atbash.demo.spring.rest.index.CompanyNameIndex;
 import be.atbash.demo.spring.rest.repository.EmployeeRepository;
 import be.atbash.demo.spring.rest.validation.CompanyValidationService;
 import be.atbash.demo.spring.rest.dto.CompanyDTO;
 import be.atbash.demo.spring.rest.dto.CompanyDTOWithId;
+import be.atbash.demo.spring.rest.dto.CompanyMultiGetDTO;
+import be.atbash.demo.spring.rest.dto.CompanyStatsDTO;
 import be.atbash.demo.spring.rest.exception.BusinessValidationException;
 import be.atbash.demo.spring.rest.exception.DomainErrorCodes;
 import be.atbash.demo.spring.rest.mapper.CompanyMapperService;
 import be.atbash.demo.spring.rest.model.Company;
 import be.atbash.demo.spring.rest.repository.CompanyRepository;
+import be.atbash.demo.spring.rest.stats.CompanyStatsAggregator;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
+@Timed(value = "service.invocations", description = "Duration of the service methods")  // tags class and method
 public class CompanyService {
 
+    // Keeps the IN clause and the response small.
+    public static final int MAX_NAMES = 100;
+    public static final int DEFAULT_SUGGESTIONS = 10;
+    public static final int MAX_SUGGESTIONS = 50;
+
     private final CompanyRepository companyRepository;
     private final EmployeeRepository employeeRepository;
     private final CompanyMapperService companyMapperService;
     private final CompanyValidationService companyValidationService;
+    private final CompanyCache companyCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CompanyNameIndex companyNameIndex;
+    private final CompanyStatsAggregator companyStatsAggregator;
 
-    public CompanyService(CompanyRepository companyRepository, EmployeeRepository employeeRepository, CompanyMapperService companyMapperService, CompanyValidationService companyValidationService) {
+    public CompanyService(CompanyRepository companyRepository, EmployeeRepository employeeRepository, CompanyMapperService companyMapperService, CompanyValidationService companyValidationService, CompanyCache companyCache, ApplicationEventPublisher eventPublisher, CompanyNameIndex companyNameIndex, CompanyStatsAggregator companyStatsAggregator) {
         this.companyRepository = companyRepository;
         this.employeeRepository = employeeRepository;
         this.companyMapperService = companyMapperService;
         this.companyValidationService = companyValidationService;
+        this.companyCache = companyCache;
+        this.eventPublisher = eventPublisher;
+        this.companyNameIndex = companyNameIndex;
+        this.companyStatsAggregator = companyStatsAggregator;
     }
 
     @Transactional(readOnly = true)
     public List<CompanyDTOWithId> getAll() {
         return companyRepository.findAll()
                 .stream()
+                .filter(company -> !company.isDeleting())
                 .map(companyMapperService::asDTOWithId)
                 .toList();
     }
 
     @Transactional(readOnly = true)
     public CompanyDTOWithId getByName(String name) {
-        return companyRepository.findByName(name)
+        return companyCache.get(name, () -> companyRepository.findByName(name))
+                .filter(company -> !company.isDeleting())
                 .map(companyMapperService::asDTOWithId)
                 .orElseThrow(() -> new BusinessValidationException(DomainErrorCodes.COMPANY_NAME_NOT_FOUND));
     }
 
+    @Transactional(readOnly = true)
+    public CompanyStatsDTO getStats(String name) {
+        // Only the company (mostly from the cache), the statistics are kept up to date in memory.
+        CompanyDTOWithId company = getByName(name);
+        return companyStatsAggregator.getStats(company.id(), company.name());
+    }
+
+    /**
+     * Retrieves multiple companies with one query.
+     *
+     * @param names the names of the companies, duplicates are ignored.
+     * @return the companies found in the order of the names, and the names that aren't found.
+     */
+    @Transactional(readOnly = true)
+    public CompanyMultiGetDTO getByNames(List<String> names) {
+        Set<String> uniqueNames = new LinkedHashSet<>(names);
+        if (uniqueNames.size() > MAX_NAMES) {
+            throw new BusinessValidationException(DomainErrorCodes.COMPANY_NAMES_TOO_MANY);
+        }
+        Map<String, Company> companies = uniqueNames.isEmpty() ? Map.of() : companyRepository.findAllByNames(uniqueNames)
+                .stream()
+                .filter(company -> !company.isDeleting())
+                .collect(Collectors.toMap(Company::getName, Function.identity()));
+
+        List<CompanyDTOWithId> found = uniqueNames.stream()
+                .filter(companies::containsKey)
+                .map(name -> companyMapperService.asDTOWithId(companies.get(name)))
+                .toList();
+        List<String> missing = uniqueNames.stream()
+                .filter(name -> !companies.containsKey(name))
+                .toList();
+        return new CompanyMultiGetDTO(found, missing);
+    }
+
+    // In memory only, no need for a transaction (and a database connection).
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<String> suggestNames(String prefix, int limit) {
+        return companyNameIndex.suggest(prefix, Math.min(Math.max(limit, 1), MAX_SUGGESTIONS));
+    }
+
     public CompanyDTOWithId create(CompanyDTO companyDTO) {
         companyValidationService.validateCreate(companyDTO);
 
         Company company = companyMapperService.asEntity(companyDTO);
         company = companyRepository.save(company);
+        eventPublisher.publishEvent(new CompanyCreatedEvent(company.getId(), company.getName()));
         return companyMapperService.asDTOWithId(company);
     }
 
     public void deleteByName(String name) {
         // No validation error if company is not found. (idempotent)
-        companyRepository.findByName(name).ifPresent(entity -> {
+        // A company that is being deleted asynchronously is left to CompanyDeletionService.
+        companyRepository.findByName(name).filter(company -> !company.isDeleting()).ifPresent(entity -> {
             employeeRepository.deleteAllByCompanyId(entity.getId());
             companyRepository.delete(entity);
+            eventPublisher.publishEvent(new CompanyDeletedEvent(entity.getId(), entity.getName()));
         });
     }
 }
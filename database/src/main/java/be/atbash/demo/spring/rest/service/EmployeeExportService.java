@@ -0,0 +1,82 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.service;
+
+import be.atbash.demo.spring.rest.dto.EmployeeExportFilter;
+import be.atbash.demo.spring.rest.dto.EmployeeWithIdDTO;
+import be.atbash.demo.spring.rest.model.Gender;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads all employees with a forward-only JDBC cursor, each row is handed to the consumer and forgotten, so the
+ * memory usage doesn't depend on the number of employees. Plain JDBC as there is no need for entities or a
+ * persistence context here.
+ * <p>
+ * The fetch size determines how many rows the driver retrieves per round trip. MySQL only honors it with
+ * 'useCursorFetch=true' on the connection URL, otherwise the driver reads the entire result in memory.
+ */
+@Service
+@Transactional(readOnly = true)  // read-only so that it can use the replica.
+public class EmployeeExportService {
+
+    private static final String QUERY = "SELECT e.id, e.email, e.first_name, e.last_name, e.hire_date, e.gender, c.name" +
+            " FROM employee e JOIN company c ON c.id = e.company_id" +
+            " WHERE c.deleting = false";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EmployeeExportService(DataSource dataSource, @Value("${app.export.fetch-size:1000}") int fetchSize) {
+        // Own instance as the fetch size is specific for the export.
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    public void exportEmployees(EmployeeExportFilter filter, Consumer<EmployeeWithIdDTO> consumer) {
+        StringBuilder sql = new StringBuilder(QUERY);
+        List<Object> parameters = new ArrayList<>();
+        if (filter.companyId() != null) {
+            sql.append(" AND e.company_id = ?");
+            parameters.add(filter.companyId());
+        }
+        if (filter.hiredFrom() != null) {
+            sql.append(" AND e.hire_date >= ?");
+            parameters.add(Date.valueOf(filter.hiredFrom()));
+        }
+        if (filter.hiredTo() != null) {
+            sql.append(" AND e.hire_date <= ?");
+            parameters.add(Date.valueOf(filter.hiredTo()));
+        }
+        sql.append(" ORDER BY e.id");
+
+        jdbcTemplate.query(sql.toString(), resultSet -> {
+            Date hireDate = resultSet.getDate(5);
+            String gender = resultSet.getString(6);
+            consumer.accept(new EmployeeWithIdDTO(resultSet.getLong(1), resultSet.getString(2), resultSet.getString(3), resultSet.getString(4)
+                    , hireDate == null ? null : hireDate.toLocalDate()
+                    , gender == null ? null : Gender.valueOf(gender)
+                    , resultSet.getString(7)));
+        }, parameters.toArray());
+    }
+}
@@ -15,52 +15,241 @@
  */
 package be.atbash.demo.spring.rest.service;
 
+import be.atbash.demo.spring.rest.dto.CompanyDTO;
+import be.atbash.demo.spring.rest.dto.EmployeeBatchResultDTO;
+import be.atbash.demo.spring.rest.dto.EmployeeBatchRowDTO;
+import be.atbash.demo.spring.rest.dto.EmployeeColumnsDTO;
+import be.atbash.demo.spring.rest.dto.EmployeeField;
+import be.atbash.demo.spring.rest.dto.EmployeePageDTO;
 import be.atbash.demo.spring.rest.dto.EmployeeWithIdDTO;
 import be.atbash.demo.spring.rest.dto.EmployeeWithoutIdDTO;
+import be.atbash.demo.spring.rest.event.EmployeeCreatedEvent;
+import be.atbash.demo.spring.rest.exception.BusinessConflictException;
+import be.atbash.demo.spring.rest.exception.BusinessValidationException;
+import be.atbash.demo.spring.rest.exception.DomainErrorCodes;
+import be.atbash.demo.spring.rest.index.EmployeeSearchIndex;
 import be.atbash.demo.spring.rest.mapper.EmployeeMapperService;
 import be.atbash.demo.spring.rest.model.Company;
 import be.atbash.demo.spring.rest.model.Employee;
 import be.atbash.demo.spring.rest.repository.EmployeeRepository;
 import be.atbash.demo.spring.rest.validation.CompanyValidationService;
+import be.atbash.demo.spring.rest.validation.EmployeeRowValidation;
 import be.atbash.demo.spring.rest.validation.EmployeeValidationService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
+@Timed(value = "service.invocations", description = "Duration of the service methods")  // tags class and method
 public class EmployeeService {
 
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int DEFAULT_SEARCH_LIMIT = 20;
+    public static final int MAX_SEARCH_LIMIT = 100;
+
+    // Aligned with 'hibernate.jdbc.batch_size' so that each flush results in a single JDBC batch.
+    private static final int BATCH_FLUSH_SIZE = 100;
+
     private final EmployeeRepository employeeRepository;
     private final CompanyValidationService companyValidationService;
     private final EmployeeValidationService employeeValidationService;
     private final EmployeeMapperService employeeMapperService;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EmployeeSearchIndex employeeSearchIndex;
 
-    public EmployeeService(EmployeeRepository employeeRepository, CompanyValidationService companyValidationService, EmployeeValidationService employeeValidationService, EmployeeMapperService employeeMapperService) {
+    public EmployeeService(EmployeeRepository employeeRepository, CompanyValidationService companyValidationService, EmployeeValidationService employeeValidationService, EmployeeMapperService employeeMapperService, EntityManager entityManager, ApplicationEventPublisher eventPublisher, EmployeeSearchIndex employeeSearchIndex) {
         this.employeeRepository = employeeRepository;
         this.companyValidationService = companyValidationService;
         this.employeeValidationService = employeeValidationService;
         this.employeeMapperService = employeeMapperService;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.employeeSearchIndex = employeeSearchIndex;
     }
 
 
     @Transactional(readOnly = true)
     public List<EmployeeWithIdDTO> findAllEmployeesForCompany(String name) {
         Company company = companyValidationService.checkValidName(name);
-        return employeeRepository.findAllByCompanyId(company.getId())
-                .stream()
-                .map(employeeMapperService::asDtoWithId)
-                .toList();
+        return employeeRepository.findAllDtoByCompanyId(company.getId());
 
     }
 
+    @Transactional(readOnly = true)
+    public EmployeePageDTO findEmployeesForCompany(String name, String cursor, int size) {
+        Company company = companyValidationService.checkValidName(name);
+        long afterId = CursorCodec.decode(cursor);
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+
+        // Read one record more than requested, so that we know if there is a next page.
+        List<EmployeeWithIdDTO> employees = employeeRepository.findPageDtoByCompanyId(company.getId(), afterId, Limit.of(pageSize + 1));
+
+        if (employees.size() <= pageSize) {
+            return new EmployeePageDTO(employees, null);
+        }
+        List<EmployeeWithIdDTO> page = employees.subList(0, pageSize);
+        return new EmployeePageDTO(page, CursorCodec.encode(page.get(pageSize - 1).id()));
+    }
+
+    /**
+     * Only the requested fields, each employee as a map from field name to value.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findEmployeeFieldsForCompany(String name, String fields) {
+        Set<EmployeeField> employeeFields = EmployeeField.parse(fields);
+        Company company = companyValidationService.checkValidName(name);
+        CompanyDTO companyDTO = new CompanyDTO(company.getName());
+
+        List<Object[]> rows = selectFields(company.getId(), employeeFields);
+        List<Map<String, Object>> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Map<String, Object> employee = new LinkedHashMap<>();
+            int column = 0;
+            for (EmployeeField field : employeeFields) {
+                employee.put(field.getFieldName(), field.isSelected() ? row[column++] : companyDTO);
+            }
+            result.add(employee);
+        }
+        return result;
+    }
+
+    /**
+     * Only the requested fields, as one list of values per field.
+     */
+    @Transactional(readOnly = true)
+    public EmployeeColumnsDTO findEmployeeColumnsForCompany(String name, String fields) {
+        Set<EmployeeField> employeeFields = EmployeeField.parse(fields);
+        Company company = companyValidationService.checkValidName(name);
+
+        List<EmployeeField> selected = employeeFields.stream().filter(EmployeeField::isSelected).toList();
+        List<Object[]> rows = selectFields(company.getId(), employeeFields);
+        Map<String, List<Object>> columns = new LinkedHashMap<>();
+        for (int column = 0; column < selected.size(); column++) {
+            List<Object> values = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                values.add(row[column]);
+            }
+            columns.put(selected.get(column).getFieldName(), values);
+        }
+        CompanyDTO companyDTO = employeeFields.contains(EmployeeField.COMPANY) ? new CompanyDTO(company.getName()) : null;
+        return new EmployeeColumnsDTO(companyDTO, rows.size(), columns);
+    }
+
+    private List<Object[]> selectFields(Long companyId, Set<EmployeeField> employeeFields) {
+        // Only the requested columns are read, and no join with company as the id is on the employee table.
+        String select = employeeFields.stream()
+                .filter(EmployeeField::isSelected)
+                .map(EmployeeField::getPath)
+                .collect(Collectors.joining(", "));
+        return entityManager.createQuery("SELECT " + select + " FROM Employee e WHERE e.company.id = :companyId ORDER BY e.id", Object[].class)
+                .setParameter("companyId", companyId)
+                .getResultList();
+    }
+
+    @Transactional(readOnly = true)
+    public void streamAllEmployeesForCompany(String name, Consumer<EmployeeWithIdDTO> consumer) {
+        Company company = companyValidationService.checkValidName(name);
+        // DTO projection, so nothing is kept in the persistence context whatever the number of employees.
+        try (Stream<EmployeeWithIdDTO> employees = employeeRepository.streamAllDtoByCompanyId(company.getId())) {
+            employees.forEach(consumer);
+        }
+    }
+
+
+    // In memory only, no need for a transaction (and a database connection).
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<EmployeeWithIdDTO> search(String query, int limit) {
+        return employeeSearchIndex.search(query, Math.min(Math.max(limit, 1), MAX_SEARCH_LIMIT));
+    }
 
     public EmployeeWithIdDTO create(EmployeeWithoutIdDTO dto) {
         Company company = employeeValidationService.validateCreate(dto);
         Employee entity = employeeMapperService.asEntity(dto);
         entity.setCompany(company);
-        entity = employeeRepository.save(entity);
-        return employeeMapperService.asDtoWithId(entity);
+        try {
+            // Flush so that a violation of the unique constraint on the email is reported here.
+            entity = employeeRepository.saveAndFlush(entity);
+        } catch (DataIntegrityViolationException e) {
+            if (isEmailAlreadyInUse(e)) {
+                throw new BusinessValidationException(DomainErrorCodes.EMPLOYEE_EMAIL_ALREADY_IN_USE);
+            }
+            // Like a company that is deleted concurrently (foreign key)
+            throw e;
+        }
+        EmployeeWithIdDTO result = employeeMapperService.asDtoWithId(entity);
+        eventPublisher.publishEvent(new EmployeeCreatedEvent(company.getId(), result));
+        return result;
+    }
+
+    public EmployeeBatchResultDTO createBatch(List<EmployeeWithoutIdDTO> dtos) {
+        List<EmployeeRowValidation> validations = employeeValidationService.validateCreateBatch(dtos);
+
+        List<EmployeeBatchRowDTO> rows = new ArrayList<>(dtos.size());
+        int created = 0;
+        try {
+            for (int idx = 0; idx < dtos.size(); idx++) {
+                EmployeeWithoutIdDTO dto = dtos.get(idx);
+                EmployeeRowValidation validation = validations.get(idx);
+                if (!validation.isValid()) {
+                    rows.add(new EmployeeBatchRowDTO(idx, dto.email(), null, validation.errorCode()));
+                    continue;
+                }
+
+                Employee entity = employeeMapperService.asEntity(dto);
+                entity.setCompany(validation.company());
+                entity = employeeRepository.save(entity);
+                rows.add(new EmployeeBatchRowDTO(idx, dto.email(), entity.getId(), null));
+                eventPublisher.publishEvent(new EmployeeCreatedEvent(validation.company().getId(), employeeMapperService.asDtoWithId(entity)));
+
+                created++;
+                if (created % BATCH_FLUSH_SIZE == 0) {
+                    // Send the pending inserts as one JDBC batch and keep the persistence context small.
+                    employeeRepository.flush();
+                    entityManager.clear();
+                }
+            }
+            // The last inserts, so that a violation is reported here and not at commit.
+            employeeRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (isEmailAlreadyInUse(e)) {
+                // Another request created an employee with one of the emails after the validation. The session can't
+                // be used anymore after a failed flush, so the whole batch is rolled back and the client can retry.
+                throw new BusinessConflictException(DomainErrorCodes.EMPLOYEE_BATCH_EMAIL_CONFLICT);
+            }
+            throw e;
+        }
+        return new EmployeeBatchResultDTO(created, dtos.size() - created, rows);
+    }
+
+    private static boolean isEmailAlreadyInUse(DataIntegrityViolationException e) {
+        Throwable cause = e;
+        while (cause != null) {
+            if (cause instanceof ConstraintViolationException violation) {
+                // As reported by the database, like 'employee.uk_employee_email' (MySQL) or 'PUBLIC.UK_EMPLOYEE_EMAIL_INDEX_4 ON ...' (H2)
+                String constraintName = violation.getConstraintName();
+                return constraintName != null && constraintName.toLowerCase(Locale.ROOT).contains(Employee.EMAIL_CONSTRAINT);
+            }
+            cause = cause.getCause();
+        }
+        return false;
     }
 }
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.stats;
+
+import be.atbash.demo.spring.rest.dto.CompanyStatsDTO;
+import be.atbash.demo.spring.rest.dto.EmployeeWithIdDTO;
+import be.atbash.demo.spring.rest.event.CompanyDeletedEvent;
+import be.atbash.demo.spring.rest.event.EmployeeCreatedEvent;
+import be.atbash.demo.spring.rest.model.Gender;
+import be.atbash.demo.spring.rest.repository.EmployeeRepository;
+import be.atbash.demo.spring.rest.repository.EmployeeStatsRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Headcount, gender distribution and hires per year for each company, maintained incrementally so that the
+ * statistics don't require reading all employees.
+ * <p>
+ * The counters are built at startup with a single GROUP BY query and updated after the commit of each created
+ * employee. The counters of a company are dropped when the company is deleted.
+ * <p>
+ * Requests are already handled before the counters are built, their events are kept until then. Ids are not
+ * committed in order, so the kept events are checked against the snapshot of the GROUP BY query itself (same
+ * repeatable read transaction): the employees it has seen are already counted and their events are skipped.
+ */
+@Component
+public class CompanyStatsAggregator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompanyStatsAggregator.class);
+
+    private final EmployeeRepository employeeRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile Map<Long, CompanyCounters> counters = new ConcurrentHashMap<>();
+    // Guarded by 'this'
+    private boolean ready;
+    private final List<Object> pendingEvents = new ArrayList<>();
+
+    public CompanyStatsAggregator(EmployeeRepository employeeRepository, PlatformTransactionManager transactionManager) {
+        this.employeeRepository = employeeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        // Both queries of the rebuild must read the same snapshot.
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        Map<Long, CompanyCounters> newCounters = new ConcurrentHashMap<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (EmployeeStatsRow row : employeeRepository.countPerCompanyGenderAndHireYear()) {
+                newCounters.computeIfAbsent(row.companyId(), id -> new CompanyCounters())
+                        .add(row.gender(), row.hireYear(), row.count());
+            }
+
+            // Within the transaction and the lock, no events can be added while we check which are already counted.
+            synchronized (this) {
+                List<Long> pendingIds = pendingEvents.stream()
+                        .filter(EmployeeCreatedEvent.class::isInstance)
+                        .map(event -> ((EmployeeCreatedEvent) event).employee().id())
+                        .toList();
+                Set<Long> counted = pendingIds.isEmpty() ? Set.of() : new HashSet<>(employeeRepository.findExistingIds(pendingIds));
+
+                counters = newCounters;
+                ready = true;
+                for (Object event : pendingEvents) {
+                    if (!(event instanceof EmployeeCreatedEvent created && counted.contains(created.employee().id()))) {
+                        apply(event);
+                    }
+                }
+                pendingEvents.clear();
+            }
+        });
+        LOGGER.info("Statistics built for {} companies in {} ms", newCounters.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener
+    public void onEmployeeCreated(EmployeeCreatedEvent event) {
+        onChange(event);
+    }
+
+    @TransactionalEventListener
+    public void onCompanyDeleted(CompanyDeletedEvent event) {
+        onChange(event);
+    }
+
+    private synchronized void onChange(Object event) {
+        if (ready) {
+            apply(event);
+        } else {
+            pendingEvents.add(event);
+        }
+    }
+
+    private void apply(Object event) {
+        if (event instanceof EmployeeCreatedEvent created) {
+            EmployeeWithIdDTO employee = created.employee();
+            Integer hireYear = employee.hireDate() == null ? null : employee.hireDate().getYear();
+            counters.computeIfAbsent(created.companyId(), id -> new CompanyCounters())
+                    .add(employee.gender(), hireYear, 1);
+        } else if (event instanceof CompanyDeletedEvent deleted) {
+            counters.remove(deleted.id());
+        }
+    }
+
+    /**
+     * @param companyId the id of an existing company
+     * @param name      the name of the company, only used in the result.
+     * @return the statistics of the company, all zero for a company without employees.
+     */
+    public CompanyStatsDTO getStats(Long companyId, String name) {
+        CompanyCounters companyCounters = counters.get(companyId);
+        if (companyCounters == null) {
+            return new CompanyStatsDTO(name, 0, Map.of(), 0, Map.of(), 0);
+        }
+        return companyCounters.asDTO(name);
+    }
+
+    private static final class CompanyCounters {
+
+        private final LongAdder headcount = new LongAdder();
+        private final Map<Gender, LongAdder> genders = new ConcurrentHashMap<>();
+        private final LongAdder withoutGender = new LongAdder();
+        private final Map<Integer, LongAdder> hiresPerYear = new ConcurrentHashMap<>();
+        private final LongAdder withoutHireDate = new LongAdder();
+
+        void add(Gender gender, Integer hireYear, long count) {
+            headcount.add(count);
+            if (gender == null) {
+                withoutGender.add(count);
+            } else {
+                genders.computeIfAbsent(gender, g -> new LongAdder()).add(count);
+            }
+            if (hireYear == null) {
+                withoutHireDate.add(count);
+            } else {
+                hiresPerYear.computeIfAbsent(hireYear, y -> new LongAdder()).add(count);
+            }
+        }
+
+        CompanyStatsDTO asDTO(String name) {
+            Map<Gender, Long> genderCounts = new EnumMap<>(Gender.class);
+            genders.forEach((gender, count) -> genderCounts.put(gender, count.sum()));
+            Map<Integer, Long> hireCounts = new TreeMap<>();
+            hiresPerYear.forEach((year, count) -> hireCounts.put(year, count.sum()));
+            return new CompanyStatsDTO(name, headcount.sum(), genderCounts, withoutGender.sum(), hireCounts, withoutHireDate.sum());
+        }
+    }
+}
@@ -15,6 +15,7 @@
  */
 package be.atbash.demo.spring.rest.validation;
 
+import be.atbash.demo.spring.rest.cache.CompanyCache;
 import be.atbash.demo.spring.rest.dto.CompanyDTO;
 import be.atbash.demo.spring.rest.exception.BusinessValidationException;
 import be.atbash.demo.spring.rest.exception.DomainErrorCodes;
@@ -29,13 +30,16 @@ import org.springframework.transaction.annotation.Transactional;
 public class CompanyValidationService {
 
     private final CompanyRepository companyRepository;
+    private final CompanyCache companyCache;
 
-    public CompanyValidationService(CompanyRepository companyRepository) {
+    public CompanyValidationService(CompanyRepository companyRepository, CompanyCache companyCache) {
         this.companyRepository = companyRepository;
+        this.companyCache = companyCache;
     }
 
     public void validateCreate(CompanyDTO company) {
-        companyRepository.findByName(company.name())
+        // A company that is being deleted still occupies the name.
+        companyCache.get(company.name(), () -> companyRepository.findByName(company.name()))
                 .ifPresent(c -> {
                     throw new BusinessValidationException(DomainErrorCodes.COMPANY_NAME_ALREADY_EXISTS);
                 });
@@ -43,7 +47,8 @@ public class CompanyValidationService {
     }
 
     public Company checkValidName(String name) {
-        return companyRepository.findByName(name)
+        return companyCache.get(name, () -> companyRepository.findByName(name))
+                .filter(company -> !company.isDeleting())
                 .orElseThrow(() -> new BusinessValidationException(DomainErrorCodes.COMPANY_NAME_NOT_FOUND));
     }
 }
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.validation;
+
+import be.atbash.demo.spring.rest.model.Company;
+
+/**
+ * Validation outcome of one employee within a batch. Either the company the employee belongs to, or the error code
+ * why the employee can't be created.
+ */
+public record EmployeeRowValidation(Company company, String errorCode) {
+
+    public static EmployeeRowValidation valid(Company company) {
+        return new EmployeeRowValidation(company, null);
+    }
+
+    public static EmployeeRowValidation rejected(String errorCode) {
+        return new EmployeeRowValidation(null, errorCode);
+    }
+
+    public boolean isValid() {
+        return errorCode == null;
+    }
+}
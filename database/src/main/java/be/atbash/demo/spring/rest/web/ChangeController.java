@@ -0,0 +1,40 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.web;
+
+import be.atbash.demo.spring.rest.dto.ChangesDTO;
+import be.atbash.demo.spring.rest.service.ChangeLogService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class ChangeController {
+
+    private final ChangeLogService changeLogService;
+
+    public ChangeController(ChangeLogService changeLogService) {
+        this.changeLogService = changeLogService;
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<ChangesDTO> getChanges(@RequestParam(name = "since", required = false) String since
+            , @RequestParam(name = "limit", defaultValue = "" + ChangeLogService.DEFAULT_LIMIT) int limit) {
+        // Without 'since', all changes from the beginning. Call again with 'next' of the response.
+        return ResponseEntity.ok(changeLogService.getChanges(since, limit));
+    }
+}
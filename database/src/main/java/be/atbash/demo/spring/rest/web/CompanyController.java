@@ -15,37 +15,123 @@
  */
 package be.atbash.demo.spring.rest.web;
 
+import be.atbash.demo.spring.rest.cache.CompanyResponseCache;
+import be.atbash.demo.spring.rest.cache.CompanyResponseCache.CachedResponse;
+import be.atbash.demo.spring.rest.concurrent.RequestCoalescer;
 import be.atbash.demo.spring.rest.dto.CompanyDTO;
+import be.atbash.demo.spring.rest.dto.CompanyDeletionStatusDTO;
+import be.atbash.demo.spring.rest.dto.CompanyMultiGetDTO;
+import be.atbash.demo.spring.rest.dto.CompanyStatsDTO;
 import be.atbash.demo.spring.rest.dto.CompanyDTOWithId;
+import be.atbash.demo.spring.rest.dto.EmployeeColumnsDTO;
+import be.atbash.demo.spring.rest.dto.EmployeeField;
+import be.atbash.demo.spring.rest.dto.EmployeePageDTO;
 import be.atbash.demo.spring.rest.dto.EmployeeWithIdDTO;
+import be.atbash.demo.spring.rest.exception.BusinessValidationException;
+import be.atbash.demo.spring.rest.exception.DomainErrorCodes;
+import be.atbash.demo.spring.rest.feed.EmployeeEventFeed;
+import be.atbash.demo.spring.rest.service.CompanyDeletionService;
 import be.atbash.demo.spring.rest.service.CompanyService;
 import be.atbash.demo.spring.rest.service.EmployeeService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 public class CompanyController {
 
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final CompanyService companyService;
+    private final CompanyDeletionService companyDeletionService;
     private final EmployeeService employeeService;
+    private final ObjectMapper objectMapper;
+    private final RequestCoalescer requestCoalescer;
+    private final CompanyResponseCache companyResponseCache;
+    private final EmployeeEventFeed employeeEventFeed;
 
-    public CompanyController(CompanyService companyService, EmployeeService employeeService) {
+    public CompanyController(CompanyService companyService, CompanyDeletionService companyDeletionService, EmployeeService employeeService, ObjectMapper objectMapper, RequestCoalescer requestCoalescer, CompanyResponseCache companyResponseCache, EmployeeEventFeed employeeEventFeed) {
         this.companyService = companyService;
+        this.companyDeletionService = companyDeletionService;
         this.employeeService = employeeService;
+        this.objectMapper = objectMapper;
+        this.requestCoalescer = requestCoalescer;
+        this.companyResponseCache = companyResponseCache;
+        this.employeeEventFeed = employeeEventFeed;
     }
 
     @GetMapping("/company/{name}")
-    public ResponseEntity<CompanyDTOWithId> getCompanyByName(@PathVariable("name") String name) {
+    public ResponseEntity<byte[]> getCompanyByName(@PathVariable("name") String name, WebRequest request) throws HttpMediaTypeNotAcceptableException {
         //The 'name' within  PathVariable is not needed to declare but we want to explicitly define it so that it is very clear how the mapping is made
-        return ResponseEntity.ok(companyService.getByName(name));
+        // Concurrent requests for the same company share a single call to the database.
+        CachedResponse response = companyResponseCache.get(CompanyResponseCache.companyKey(name), negotiateMediaType(request)
+                , () -> requestCoalescer.execute("company:" + name, () -> companyService.getByName(name)));
+        return cachedResponse(response, request);
     }
 
     @GetMapping("/company")
-    public ResponseEntity<List<CompanyDTOWithId>> getAllCompanies() {
-        return ResponseEntity.ok(companyService.getAll());
+    public ResponseEntity<byte[]> getAllCompanies(WebRequest request) throws HttpMediaTypeNotAcceptableException {
+        CachedResponse response = companyResponseCache.get(CompanyResponseCache.ALL_COMPANIES, negotiateMediaType(request), companyService::getAll);
+        return cachedResponse(response, request);
+    }
+
+    @GetMapping(value = "/company", params = "names")
+    public ResponseEntity<CompanyMultiGetDTO> getCompaniesByNames(@RequestParam("names") List<String> names) {
+        // names=a,b,c or names=a&names=b&names=c, one query for all of them.
+        return ResponseEntity.ok(companyService.getByNames(names));
+    }
+
+    @GetMapping("/company/suggest")
+    public ResponseEntity<List<String>> suggestCompanyNames(@RequestParam("prefix") String prefix
+            , @RequestParam(name = "limit", defaultValue = "" + CompanyService.DEFAULT_SUGGESTIONS) int limit) {
+        // Type-ahead, takes precedence over /company/{name} as the path is more specific.
+        return ResponseEntity.ok(companyService.suggestNames(prefix, limit));
+    }
+
+    // The body is already serialized, so we can't rely on the content negotiation of the message converters.
+    private MediaType negotiateMediaType(WebRequest request) throws HttpMediaTypeNotAcceptableException {
+        List<MediaType> producible = companyResponseCache.getMediaTypes();
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return producible.get(0);
+        }
+        List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType acceptedType : accepted) {
+            for (MediaType mediaType : producible) {
+                if (acceptedType.isCompatibleWith(mediaType)) {
+                    return mediaType;
+                }
+            }
+        }
+        throw new HttpMediaTypeNotAcceptableException(producible);
+    }
+
+    private static ResponseEntity<byte[]> cachedResponse(CachedResponse response, WebRequest request) {
+        if (request.checkNotModified(response.eTag())) {
+            // 304 and ETag header are already set.
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(response.eTag())
+                .varyBy(HttpHeaders.ACCEPT)
+                .contentType(response.contentType())
+                .body(response.body());
     }
 
     @PostMapping("/company")
@@ -61,10 +147,82 @@ public class CompanyController {
         return ResponseEntity.noContent().build();
     }
 
+    @DeleteMapping(value = "/company/{name}", params = "mode=async")
+    public ResponseEntity<CompanyDeletionStatusDTO> deleteCompanyAsync(@PathVariable("name") String name) {
+        // Returns immediately, the employees are removed in the background. Follow up with the Location.
+        CompanyDeletionStatusDTO status = companyDeletionService.startDeletion(name);
+        if (status == null) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.accepted().location(URI.create("/company/" + name + "/deletion")).body(status);
+    }
+
+    @GetMapping("/company/{name}/deletion")
+    public ResponseEntity<CompanyDeletionStatusDTO> getDeletionStatus(@PathVariable("name") String name) {
+        return ResponseEntity.ok(companyDeletionService.getStatus(name));
+    }
+
+    @GetMapping("/company/{name}/stats")
+    public ResponseEntity<CompanyStatsDTO> getStatsByCompanyByName(@PathVariable("name") String name) {
+        return ResponseEntity.ok(companyService.getStats(name));
+    }
+
     @GetMapping("/company/{name}/employees")
     public ResponseEntity<List<EmployeeWithIdDTO>> getEmployeesByCompanyByName(@PathVariable("name") String name) {
-        return ResponseEntity.ok(employeeService.findAllEmployeesForCompany(name));
+        return ResponseEntity.ok(requestCoalescer.execute("employees:" + name, () -> employeeService.findAllEmployeesForCompany(name)));
     }
 
-}
+    // Sparse fieldsets, like /company/acme/employees?fields=id,email
+    @GetMapping(value = "/company/{name}/employees", params = {"fields", "!layout"})
+    public ResponseEntity<List<Map<String, Object>>> getEmployeeFieldsByCompanyByName(@PathVariable("name") String name, @RequestParam("fields") String fields) {
+        return ResponseEntity.ok(employeeService.findEmployeeFieldsForCompany(name, fields));
+    }
 
+    // Columnar layout, like /company/acme/employees?layout=columnar&fields=id,email, all fields when 'fields' is omitted.
+    @GetMapping(value = "/company/{name}/employees", params = "layout")
+    public ResponseEntity<EmployeeColumnsDTO> getEmployeeColumnsByCompanyByName(@PathVariable("name") String name
+            , @RequestParam("layout") String layout
+            , @RequestParam(name = "fields", required = false) String fields) {
+        if (!"columnar".equals(layout)) {
+            throw new BusinessValidationException(DomainErrorCodes.EMPLOYEE_LAYOUT_INVALID);
+        }
+        return ResponseEntity.ok(employeeService.findEmployeeColumnsForCompany(name, fields == null ? EmployeeField.ALL_FIELDS : fields));
+    }
+
+    @GetMapping("/company/{name}/employees/page")
+    public ResponseEntity<EmployeePageDTO> getEmployeePageByCompanyByName(@PathVariable("name") String name
+            , @RequestParam(name = "cursor", required = false) String cursor
+            , @RequestParam(name = "size", defaultValue = "" + EmployeeService.DEFAULT_PAGE_SIZE) int size) {
+        return ResponseEntity.ok(employeeService.findEmployeesForCompany(name, cursor, size));
+    }
+
+    @GetMapping(value = "/company/{name}/employees/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamEmployeesByCompanyByName(@PathVariable("name") String name) {
+        // Check the company upfront, once we start writing the response, we can no longer return the Problem Details.
+        companyService.getByName(name);
+
+        StreamingResponseBody body = outputStream -> {
+            // One JSON document per line (NDJSON) so that the client can process the employees as they arrive.
+            try (SequenceWriter writer = objectMapper.writer()
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .withRootValueSeparator("\n")
+                    .writeValues(outputStream)) {
+                employeeService.streamAllEmployeesForCompany(name, employee -> {
+                    try {
+                        writer.write(employee);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping(value = "/company/{name}/employees/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter employeeEventsByCompanyByName(@PathVariable("name") String name) {
+        // Instead of polling the list of employees, the client receives each new employee.
+        CompanyDTOWithId company = companyService.getByName(name);
+        return employeeEventFeed.subscribe(company.id());
+    }
+}
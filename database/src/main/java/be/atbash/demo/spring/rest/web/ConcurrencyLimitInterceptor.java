@@ -0,0 +1,199 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.web;
+
+import be.atbash.demo.spring.rest.concurrent.AdaptiveConcurrencyLimiter;
+import be.atbash.demo.spring.rest.exception.ConcurrencyLimitExceededException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.util.StringUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sheds requests when the adaptive concurrency limit of their endpoint group (the controller) is reached, so that the
+ * excess requests receive a fast 503 (see GlobalExceptionHandler) instead of waiting on the connection pool.
+ * <p>
+ * An interceptor (and not a servlet filter) so that the rejection is handled by the exception handlers of Spring MVC.
+ * The permit of a response that continues asynchronously (Server-Sent Events, streaming, export) is kept until the
+ * asynchronous processing ends, these responses hold a database connection while they are written. Their duration
+ * says nothing about the latency of the group, so they don't provide a sample to the limiter.
+ */
+public class ConcurrencyLimitInterceptor implements AsyncHandlerInterceptor, MeterBinder {
+
+    private static final String PERMIT_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".PERMIT";
+
+    private record Permit(AdaptiveConcurrencyLimiter limiter, long start) {
+    }
+
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+
+    private final ConcurrentMap<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    private volatile MeterRegistry meterRegistry;
+
+    /**
+     * @param initialLimit the start limit of each group, kept within minLimit and maxLimit (it defaults to the size of
+     *                     the connection pool, which can be smaller than the minimum).
+     * @throws IllegalArgumentException when minLimit is not between 1 and maxLimit, at startup and not at the first
+     *                                  request of a group.
+     */
+    public ConcurrencyLimitInterceptor(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || minLimit > maxLimit) {
+            throw new IllegalArgumentException(String.format("Limits must satisfy 1 <= min (%s) <= max (%s)", minLimit, maxLimit));
+        }
+        this.initialLimit = Math.max(minLimit, Math.min(initialLimit, maxLimit));
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.REQUEST || !(handler instanceof HandlerMethod handlerMethod)) {
+            // Async and error dispatches are part of a request that already has passed.
+            return true;
+        }
+        String group = groupName(handlerMethod);
+        AdaptiveConcurrencyLimiter limiter = limiters.computeIfAbsent(group, this::createLimiter);
+        if (!limiter.tryAcquire()) {
+            throw new ConcurrencyLimitExceededException(group);
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, new Permit(limiter, System.nanoTime()));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Permit permit = removePermit(request);
+        if (permit != null) {
+            request.getAsyncContext().addListener(new AsyncPermitListener(permit));
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Permit permit = removePermit(request);
+        if (permit == null) {
+            return;
+        }
+        if (ex == null) {
+            permit.limiter().release(System.nanoTime() - permit.start());
+        } else {
+            permit.limiter().releaseWithoutSample();
+        }
+    }
+
+    private static Permit removePermit(HttpServletRequest request) {
+        Permit permit = (Permit) request.getAttribute(PERMIT_ATTRIBUTE);
+        request.removeAttribute(PERMIT_ATTRIBUTE);
+        return permit;
+    }
+
+    // Releases the permit once, the container can call onError or onTimeout before onComplete.
+    private static final class AsyncPermitListener implements AsyncListener {
+
+        private final Permit permit;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        AsyncPermitListener(Permit permit) {
+            this.permit = permit;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Listeners are removed when the request is put in asynchronous mode again.
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                permit.limiter().releaseWithoutSample();
+            }
+        }
+    }
+
+    private static String groupName(HandlerMethod handlerMethod) {
+        // CompanyController -> company
+        String name = handlerMethod.getBeanType().getSimpleName();
+        if (name.endsWith("Controller") && name.length() > "Controller".length()) {
+            name = name.substring(0, name.length() - "Controller".length());
+        }
+        return StringUtils.uncapitalize(name);
+    }
+
+    private AdaptiveConcurrencyLimiter createLimiter(String group) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit);
+        MeterRegistry registry = meterRegistry;
+        if (registry != null) {
+            bindLimiter(registry, group, limiter);
+        }
+        return limiter;
+    }
+
+    AdaptiveConcurrencyLimiter getLimiter(String group) {
+        return limiters.get(group);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // Groups are created at their first request, those are registered when they are created.
+        meterRegistry = registry;
+        limiters.forEach((group, limiter) -> bindLimiter(registry, group, limiter));
+    }
+
+    private static void bindLimiter(MeterRegistry registry, String group, AdaptiveConcurrencyLimiter limiter) {
+        Gauge.builder("concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .tags("group", group)
+                .description("The current concurrency limit of the endpoint group")
+                .register(registry);
+        Gauge.builder("concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .tags("group", group)
+                .description("The number of requests of the endpoint group that are executing")
+                .register(registry);
+        FunctionCounter.builder("concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejected)
+                .tags("group", group)
+                .description("The number of requests rejected because the concurrency limit was reached")
+                .register(registry);
+    }
+}
@@ -15,26 +15,57 @@
  */
 package be.atbash.demo.spring.rest.web;
 
+import be.atbash.demo.spring.rest.dto.EmployeeBatchResultDTO;
 import be.atbash.demo.spring.rest.dto.EmployeeWithIdDTO;
 import be.atbash.demo.spring.rest.dto.EmployeeWithoutIdDTO;
 import be.atbash.demo.spring.rest.service.EmployeeService;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
 @RestController
 public class EmployeeController {
 
     private final EmployeeService employeeService;
+    private final ObjectMapper objectMapper;
 
-    public EmployeeController(EmployeeService employeeService) {
+    public EmployeeController(EmployeeService employeeService, ObjectMapper objectMapper) {
         this.employeeService = employeeService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping("/employee")
     public ResponseEntity<EmployeeWithIdDTO> createEmployee(@RequestBody EmployeeWithoutIdDTO dto) {
         return ResponseEntity.ok(employeeService.create(dto));
     }
-}
 
+    @PostMapping(value = "/employee/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<EmployeeBatchResultDTO> createEmployees(@RequestBody List<EmployeeWithoutIdDTO> dtos) {
+        return ResponseEntity.ok(employeeService.createBatch(dtos));
+    }
+
+    @PostMapping(value = "/employee/batch", consumes = "application/x-ndjson")
+    public ResponseEntity<EmployeeBatchResultDTO> createEmployeesFromNdjson(InputStream body) throws IOException {
+        // One employee JSON document per line.
+        try (MappingIterator<EmployeeWithoutIdDTO> iterator = objectMapper.readerFor(EmployeeWithoutIdDTO.class).readValues(body)) {
+            return ResponseEntity.ok(employeeService.createBatch(iterator.readAll()));
+        }
+    }
+
+    @GetMapping("/employee/search")
+    public ResponseEntity<List<EmployeeWithIdDTO>> searchEmployees(@RequestParam("q") String query
+            , @RequestParam(name = "limit", defaultValue = "" + EmployeeService.DEFAULT_SEARCH_LIMIT) int limit) {
+        // Fragments of the first name, last name or email, over all companies.
+        return ResponseEntity.ok(employeeService.search(query, limit));
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.web;
+
+import be.atbash.demo.spring.rest.dto.EmployeeWithIdDTO;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.function.Consumer;
+
+/**
+ * Writes employees as CSV (RFC 4180), one line per employee after a header line.
+ */
+public class EmployeeCsvWriter implements Consumer<EmployeeWithIdDTO> {
+
+    private static final String HEADER = "id,email,firstName,lastName,hireDate,gender,company";
+
+    private final Writer writer;
+
+    public EmployeeCsvWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    public void writeHeader() {
+        writeLine(HEADER);
+    }
+
+    @Override
+    public void accept(EmployeeWithIdDTO employee) {
+        String line = String.join(","
+                , String.valueOf(employee.id())
+                , escape(employee.email())
+                , escape(employee.firstName())
+                , escape(employee.lastName())
+                , employee.hireDate() == null ? "" : employee.hireDate().toString()
+                , employee.gender() == null ? "" : employee.gender().name()
+                , escape(employee.company() == null ? null : employee.company().name()));
+        writeLine(line);
+    }
+
+    private void writeLine(String line) {
+        try {
+            writer.write(line);
+            writer.write("\r\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
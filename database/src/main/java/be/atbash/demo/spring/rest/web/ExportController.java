@@ -0,0 +1,161 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.web;
+
+import be.atbash.demo.spring.rest.dto.EmployeeExportFilter;
+import be.atbash.demo.spring.rest.exception.BusinessValidationException;
+import be.atbash.demo.spring.rest.exception.DomainErrorCodes;
+import be.atbash.demo.spring.rest.service.CompanyService;
+import be.atbash.demo.spring.rest.service.EmployeeExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+public class ExportController {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final EmployeeExportService employeeExportService;
+    private final CompanyService companyService;
+    private final ObjectMapper objectMapper;
+
+    public ExportController(EmployeeExportService employeeExportService, CompanyService companyService, ObjectMapper objectMapper) {
+        this.employeeExportService = employeeExportService;
+        this.companyService = companyService;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping("/export/employees")
+    public ResponseEntity<StreamingResponseBody> exportEmployees(@RequestParam(name = "format", defaultValue = "csv") String format
+            , @RequestParam(name = "company", required = false) String companyName
+            , @RequestParam(name = "hiredFrom", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hiredFrom
+            , @RequestParam(name = "hiredTo", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hiredTo
+            , @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            throw new BusinessValidationException(DomainErrorCodes.EXPORT_FORMAT_INVALID);
+        }
+        // Validate everything upfront, once we start writing the response, we can no longer return the Problem Details.
+        Long companyId = companyName == null ? null : companyService.getByName(companyName).id();
+        EmployeeExportFilter filter = new EmployeeExportFilter(companyId, hiredFrom, hiredTo);
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        StreamingResponseBody body = outputStream -> {
+            OutputStream target = gzip ? new GZIPOutputStream(outputStream, BUFFER_SIZE) : outputStream;
+            if (csv) {
+                writeCsv(filter, target);
+            } else {
+                writeNdjson(filter, target);
+            }
+            if (gzip) {
+                ((GZIPOutputStream) target).finish();
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(csv ? TEXT_CSV : CompanyController.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(csv ? "employees.csv" : "employees.ndjson")
+                        .build()
+                        .toString());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .body(body);
+    }
+
+    /**
+     * gzip is accepted when listed (or covered by '*') with a quality above 0, like 'gzip, deflate' or '*;q=0.5'
+     * but not 'gzip;q=0'.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double wildcardQuality = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1.0;
+            for (int idx = 1; idx < parts.length; idx++) {
+                String parameter = parts[idx].trim();
+                if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0.0;  // Invalid, not acceptable
+                    }
+                }
+            }
+            if ("gzip".equals(name) || "x-gzip".equals(name)) {
+                gzipQuality = quality;
+            } else if ("*".equals(name)) {
+                wildcardQuality = quality;
+            }
+        }
+        // An explicit gzip entry takes precedence over the wildcard.
+        Double quality = gzipQuality != null ? gzipQuality : wildcardQuality;
+        return quality != null && quality > 0;
+    }
+
+    private void writeCsv(EmployeeExportFilter filter, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        EmployeeCsvWriter csvWriter = new EmployeeCsvWriter(writer);
+        csvWriter.writeHeader();
+        employeeExportService.exportEmployees(filter, csvWriter);
+        writer.flush();  // Not close, the container closes the response stream.
+    }
+
+    private void writeNdjson(EmployeeExportFilter filter, OutputStream outputStream) throws IOException {
+        try (SequenceWriter writer = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(outputStream)) {
+            employeeExportService.exportEmployees(filter, employee -> {
+                try {
+                    writer.write(employee);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+}
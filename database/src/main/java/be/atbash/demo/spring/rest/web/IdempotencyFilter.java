@@ -0,0 +1,211 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.web;
+
+import be.atbash.demo.spring.rest.cache.IdempotencyStore;
+import be.atbash.demo.spring.rest.cache.IdempotencyStore.Reservation;
+import be.atbash.demo.spring.rest.cache.IdempotencyStore.StoredResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Makes POST requests with an Idempotency-Key header safe to retry. The first request with a key is executed and
+ * its response stored, a retry with the same key and body receives the stored response (header
+ * Idempotent-Replayed) without validation or insert. While the first request is executing, a retry receives 409,
+ * reusing a key for another body (or Accept and Content-Type header) receives 422.
+ * <p>
+ * Successful and client error (4xx) responses are stored, after a server error or exception the request can be
+ * retried with the same key. Registered by IdempotencyConfig for POST /company and POST /employee.
+ * <p>
+ * The body is kept in memory for the fingerprint, a larger body than the maximum is rejected with 413. When the store
+ * is full with requests that are still executing, the request is rejected with 503 instead of forgetting a key.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
+    private final int maxBodySize;
+
+    public IdempotencyFilter(IdempotencyStore idempotencyStore, ObjectMapper objectMapper, int maxBodySize) {
+        this.idempotencyStore = idempotencyStore;
+        this.objectMapper = objectMapper;
+        this.maxBodySize = maxBodySize;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod()) || !StringUtils.hasText(request.getHeader(IDEMPOTENCY_KEY));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        // Reading one byte more than allowed tells us the body is too large, without relying on Content-Length.
+        byte[] body = request.getContentLengthLong() > maxBodySize ? null : request.getInputStream().readNBytes(maxBodySize + 1);
+        if (body == null || body.length > maxBodySize) {
+            writeProblem(response, HttpStatus.PAYLOAD_TOO_LARGE, "The body of a request with an Idempotency-Key can be at most " + maxBodySize + " bytes");
+            return;
+        }
+        // The key is only valid for the same endpoint.
+        String key = request.getRequestURI() + ' ' + request.getHeader(IDEMPOTENCY_KEY);
+
+        Reservation reservation = idempotencyStore.reserve(key, fingerprint(request, body));
+        switch (reservation.outcome()) {
+            case IN_FLIGHT -> writeProblem(response, HttpStatus.CONFLICT, "A request with this Idempotency-Key is still being processed");
+            case MISMATCH -> writeProblem(response, HttpStatus.UNPROCESSABLE_ENTITY, "The Idempotency-Key was already used for a different request");
+            case COMPLETED -> replay(response, reservation.response());
+            case FULL -> {
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                writeProblem(response, HttpStatus.SERVICE_UNAVAILABLE, "Too many requests with an Idempotency-Key are being processed");
+            }
+            case ACQUIRED -> execute(new CachedBodyRequest(request, body), response, filterChain, key);
+        }
+    }
+
+    private static String fingerprint(HttpServletRequest request, byte[] body) {
+        // The format of the request and of the response are part of the request, a retry with another Accept header
+        // can't receive the stored response.
+        ByteArrayOutputStream content = new ByteArrayOutputStream(body.length + 128);
+        content.writeBytes(String.valueOf(request.getHeader(HttpHeaders.ACCEPT)).getBytes(StandardCharsets.UTF_8));
+        content.write('\n');
+        content.writeBytes(String.valueOf(request.getContentType()).getBytes(StandardCharsets.UTF_8));
+        content.write('\n');
+        content.writeBytes(body);
+        return DigestUtils.md5DigestAsHex(content.toByteArray());
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain, String key) throws ServletException, IOException {
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        boolean stored = false;
+        try {
+            filterChain.doFilter(request, responseWrapper);
+            int status = responseWrapper.getStatus();
+            if (status < 500) {
+                idempotencyStore.complete(key, new StoredResponse(status, responseWrapper.getContentType()
+                        , responseWrapper.getHeader(HttpHeaders.LOCATION), responseWrapper.getContentAsByteArray()));
+                stored = true;
+            }
+        } finally {
+            if (!stored) {
+                idempotencyStore.release(key);
+            }
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+    private static void replay(HttpServletResponse response, StoredResponse storedResponse) throws IOException {
+        response.setStatus(storedResponse.status());
+        response.setHeader(IDEMPOTENT_REPLAYED, "true");
+        if (storedResponse.contentType() != null) {
+            response.setContentType(storedResponse.contentType());
+        }
+        if (storedResponse.location() != null) {
+            response.setHeader(HttpHeaders.LOCATION, storedResponse.location());
+        }
+        response.setContentLength(storedResponse.body().length);
+        response.getOutputStream().write(storedResponse.body());
+    }
+
+    private void writeProblem(HttpServletResponse response, HttpStatus status, String detail) throws IOException {
+        // Same format as the GlobalExceptionHandler, which isn't involved as the request doesn't reach a controller.
+        ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(status, detail);
+        problemDetail.setTitle("Idempotency problem");
+        problemDetail.setType(URI.create("https://api.atbash.be/errors/idempotency-problem"));
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), problemDetail);
+    }
+
+    /**
+     * The body is read upfront to calculate the fingerprint, this wrapper supplies it again to the controller.
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream inputStream = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return inputStream.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return inputStream.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return inputStream.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    // All data is available in memory, there is no waiting.
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
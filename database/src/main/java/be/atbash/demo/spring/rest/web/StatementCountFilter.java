@@ -0,0 +1,63 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Logs the number of SQL statements executed for each request, as a warning when above the maximum (a probable
+ * N+1 problem). Counts are kept per thread, they are reset at the start of the request and still available after
+ * the request so that tests can check them. Statements executed on other threads (like StreamingResponseBody) are
+ * not included.
+ * <p>
+ * Registered by SqlInspectionConfig.
+ */
+public class StatementCountFilter extends OncePerRequestFilter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StatementCountFilter.class);
+
+    private final int maxStatements;
+
+    public StatementCountFilter(int maxStatements) {
+        this.maxStatements = maxStatements;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        QueryCountHolder.clear();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            QueryCount count = QueryCountHolder.getGrandTotal();
+            if (count.getTotal() > maxStatements) {
+                LOGGER.warn("{} {} executed {} statements (select {}, insert {}, update {}, delete {}) in {} ms", request.getMethod(), request.getRequestURI()
+                        , count.getTotal(), count.getSelect(), count.getInsert(), count.getUpdate(), count.getDelete(), count.getTime());
+            } else if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("{} {} executed {} statements in {} ms", request.getMethod(), request.getRequestURI(), count.getTotal(), count.getTime());
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+--
+-- Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+--     http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+
+-- Append-only change log read by GET /changes
+
+CREATE TABLE change_log
+(
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    entity_type VARCHAR(20)  NOT NULL,
+    change_type VARCHAR(20)  NOT NULL,
+    entity_id   BIGINT       NOT NULL,
+    company_id  BIGINT       NOT NULL,
+    changed_at  DATETIME(6)  NOT NULL,
+    payload     VARCHAR(4000),
+    PRIMARY KEY (id)
+);
@@ -0,0 +1,22 @@
+--
+-- Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+--     http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+
+-- Gives the unique index on the email of the employee a fixed name, so that a duplicate email can be told apart from
+-- other integrity violations. Look up the current (generated) name with SHOW INDEX FROM employee.
+
+ALTER TABLE employee
+    DROP INDEX `<current name of the unique index on email>`,
+    ADD CONSTRAINT uk_employee_email UNIQUE (email);
@@ -0,0 +1,25 @@
+--
+-- Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+--     http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+
+-- Migration for the 'pooled-ids' profile on MySQL.
+-- MySQL has no sequences, Hibernate emulates them with a table that has a single row.
+-- The sequences must start after the existing ids as the value read is the first id of the next block (pooled-lo).
+
+CREATE TABLE company_seq (next_val BIGINT);
+INSERT INTO company_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM company;
+
+CREATE TABLE employee_seq (next_val BIGINT);
+INSERT INTO employee_seq (next_val) SELECT COALESCE(MAX(id), 0) + 1 FROM employee;
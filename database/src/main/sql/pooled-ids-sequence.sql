@@ -0,0 +1,22 @@
+--
+-- Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+--     http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+
+-- Migration for the 'pooled-ids' profile on databases with sequence support (PostgreSQL, Oracle, H2, ...).
+-- Replace <max id + 1> with the result of SELECT COALESCE(MAX(id), 0) + 1 of the table.
+-- The increment must be equal to the allocation-size in META-INF/orm-pooled-ids.xml.
+
+CREATE SEQUENCE company_seq START WITH <max company id + 1> INCREMENT BY 50;
+CREATE SEQUENCE employee_seq START WITH <max employee id + 1> INCREMENT BY 50;
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.benchmark;
+
+import be.atbash.demo.spring.rest.builder.EmployeeBuilder;
+import be.atbash.demo.spring.rest.model.Company;
+import be.atbash.demo.spring.rest.model.Gender;
+import be.atbash.demo.spring.rest.repository.EmployeeRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDate;
+
+/**
+ * Measures the throughput of inserting employees the way the bulk import does it (flush every 100 employees).
+ * These are no unit tests, the class names don't end with 'Test' so that they are not executed during the build.
+ * Run them with
+ * <p>
+ * mvn test -Dtest='*InsertBenchmark' -Dsurefire.failIfNoSpecifiedTests=false
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.jdbc.batch_size=100",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+abstract class AbstractInsertBenchmark {
+
+    private static final int EMPLOYEES = 20_000;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Test
+    void insertEmployees() {
+        Company company = new Company();
+        company.setName("Benchmark");
+        entityManager.persist(company);
+
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            statistics.clear();
+            long start = System.nanoTime();
+
+            for (int idx = 0; idx < EMPLOYEES; idx++) {
+                employeeRepository.save(new EmployeeBuilder()
+                        .withEmail("employee" + round + "." + idx + "@acme.org")
+                        .withFirstName("First")
+                        .withLastName("Last")
+                        .withHireDate(LocalDate.of(2020, 1, 1))
+                        .withGender(Gender.OTHER)
+                        .withCompany(company)
+                        .build());
+                if ((idx + 1) % 100 == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.flush();
+
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            // First rounds are the warm-up of the JVM.
+            System.out.printf("%s round %d: %d employees in %d ms (%.0f inserts/s), %d JDBC statements prepared%n"
+                    , getClass().getSimpleName(), round, EMPLOYEES, millis, EMPLOYEES * 1000.0 / Math.max(millis, 1)
+                    , statistics.getPrepareStatementCount());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.benchmark;
+
+import be.atbash.demo.spring.rest.dto.CompanyDTO;
+import be.atbash.demo.spring.rest.dto.EmployeeWithIdDTO;
+import be.atbash.demo.spring.rest.model.Gender;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares the payload size and the serialization and deserialization time of a list of employees in JSON, CBOR
+ * and Smile. Like the other benchmarks, it is not executed during the build, run it with
+ * <p>
+ * mvn test -Dtest='DataFormatBenchmark' -Dsurefire.failIfNoSpecifiedTests=false
+ */
+class DataFormatBenchmark {
+
+    private static final int EMPLOYEES = 10_000;
+    private static final int ROUNDS = 10;
+    private static final int ITERATIONS = 20;
+
+    @Test
+    void serializeEmployees() throws Exception {
+        Map<String, ObjectMapper> mappers = Map.of(
+                "json", Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build(),
+                "cbor", Jackson2ObjectMapperBuilder.cbor().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build(),
+                "smile", Jackson2ObjectMapperBuilder.smile().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build());
+        List<EmployeeWithIdDTO> employees = createEmployees();
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            for (String format : List.of("json", "cbor", "smile")) {
+                ObjectMapper mapper = mappers.get(format);
+                JavaType type = mapper.getTypeFactory().constructCollectionType(List.class, EmployeeWithIdDTO.class);
+
+                long start = System.nanoTime();
+                byte[] payload = null;
+                for (int idx = 0; idx < ITERATIONS; idx++) {
+                    payload = mapper.writeValueAsBytes(employees);
+                }
+                long serialize = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                for (int idx = 0; idx < ITERATIONS; idx++) {
+                    mapper.readValue(payload, type);
+                }
+                long deserialize = System.nanoTime() - start;
+
+                // First rounds are the warm-up of the JVM.
+                System.out.printf("round %d %-5s: %d bytes, serialize %.2f ms, deserialize %.2f ms%n"
+                        , round, format, payload.length, serialize / 1_000_000.0 / ITERATIONS, deserialize / 1_000_000.0 / ITERATIONS);
+            }
+        }
+    }
+
+    private static List<EmployeeWithIdDTO> createEmployees() {
+        List<EmployeeWithIdDTO> result = new ArrayList<>(EMPLOYEES);
+        CompanyDTO company = new CompanyDTO("Benchmark");
+        for (int idx = 0; idx < EMPLOYEES; idx++) {
+            result.add(new EmployeeWithIdDTO((long) idx, "employee" + idx + "@acme.org", "First" + idx, "Last" + idx
+                    , LocalDate.of(2020, 1, 1).plusDays(idx % 1000), Gender.values()[idx % Gender.values().length], company));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.benchmark;
+
+import be.atbash.demo.spring.rest.dto.CompanyDTO;
+import be.atbash.demo.spring.rest.dto.EmployeeWithIdDTO;
+import be.atbash.demo.spring.rest.json.DtoModule;
+import be.atbash.demo.spring.rest.model.Gender;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark that compares the hand-written serializers of the DtoModule with the default (introspected) handling
+ * of the records for a list of employees. Like the other benchmarks, it is not executed during the build, run it with
+ * <p>
+ * mvn test -Dtest='DtoModuleBenchmark' -Dsurefire.failIfNoSpecifiedTests=false
+ * <p>
+ * Public as required by JMH, the benchmark code is generated by the JMH annotation processor at test-compile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class DtoModuleBenchmark {
+
+    private static final int EMPLOYEES = 10_000;
+
+    @Param({"default", "module"})
+    public String mapper;
+
+    private ObjectMapper objectMapper;
+    private JavaType type;
+    private List<EmployeeWithIdDTO> employees;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if ("module".equals(mapper)) {
+            builder.modulesToInstall(new DtoModule());
+        }
+        objectMapper = builder.build();
+        type = objectMapper.getTypeFactory().constructCollectionType(List.class, EmployeeWithIdDTO.class);
+        employees = createEmployees();
+        payload = objectMapper.writeValueAsBytes(employees);
+    }
+
+    @Benchmark
+    public void serialize(Blackhole blackhole) throws IOException {
+        blackhole.consume(objectMapper.writeValueAsBytes(employees));
+    }
+
+    @Benchmark
+    public void deserialize(Blackhole blackhole) throws IOException {
+        blackhole.consume(objectMapper.<List<EmployeeWithIdDTO>>readValue(payload, type));
+    }
+
+    @Test
+    void run() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DtoModuleBenchmark.class.getName())
+                .build()).run();
+    }
+
+    private static List<EmployeeWithIdDTO> createEmployees() {
+        List<EmployeeWithIdDTO> result = new ArrayList<>(EMPLOYEES);
+        CompanyDTO company = new CompanyDTO("Benchmark");
+        for (int idx = 0; idx < EMPLOYEES; idx++) {
+            result.add(new EmployeeWithIdDTO((long) idx, "employee" + idx + "@acme.org", "First" + idx, "Last" + idx
+                    , LocalDate.of(2020, 1, 1).plusDays(idx % 1000), Gender.values()[idx % Gender.values().length], company));
+        }
+        return result;
+    }
+}
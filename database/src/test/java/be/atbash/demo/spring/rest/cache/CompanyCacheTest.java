@@ -0,0 +1,105 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.cache;
+
+import be.atbash.demo.spring.rest.builder.CompanyBuilder;
+import be.atbash.demo.spring.rest.event.CompanyDeletedEvent;
+import be.atbash.demo.spring.rest.model.Company;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+class CompanyCacheTest {
+
+    private final CompanyCache companyCache = new CompanyCache(2);
+
+    @Test
+    void get() {
+        // arrange
+        CountingLoader loader = new CountingLoader(new CompanyBuilder().withId(1L).withName("Atbash").build());
+
+        // act
+        Optional<Company> first = companyCache.get("Atbash", loader);
+        Optional<Company> second = companyCache.get("Atbash", loader);
+
+        // assert
+        Assertions.assertThat(loader.calls.get()).isEqualTo(1);
+        Assertions.assertThat(second).isPresent();
+        Assertions.assertThat(second.get().getId()).isEqualTo(1L);
+        Assertions.assertThat(second.get()).isNotSameAs(first.get());  // a detached copy
+    }
+
+    @Test
+    void get_notFoundIsNotCached() {
+        // arrange
+        CountingLoader loader = new CountingLoader(null);
+
+        // act
+        companyCache.get("Atbash", loader);
+        Optional<Company> company = companyCache.get("Atbash", loader);
+
+        // assert
+        Assertions.assertThat(company).isEmpty();
+        Assertions.assertThat(loader.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void get_leastRecentlyUsedIsRemoved() {
+        // arrange
+        companyCache.get("A", new CountingLoader(new CompanyBuilder().withId(1L).withName("A").build()));
+        companyCache.get("B", new CountingLoader(new CompanyBuilder().withId(2L).withName("B").build()));
+        companyCache.get("A", new CountingLoader(null));  // A is now the most recently used
+
+        // act
+        companyCache.get("C", new CountingLoader(new CompanyBuilder().withId(3L).withName("C").build()));
+
+        // assert
+        Assertions.assertThat(companyCache.size()).isEqualTo(2);
+        Assertions.assertThat(companyCache.get("A", new CountingLoader(null))).isPresent();
+        Assertions.assertThat(companyCache.get("B", new CountingLoader(null))).isEmpty();
+    }
+
+    @Test
+    void onCompanyDeleted() {
+        // arrange
+        companyCache.get("Atbash", new CountingLoader(new CompanyBuilder().withId(1L).withName("Atbash").build()));
+
+        // act
+        companyCache.onCompanyDeleted(new CompanyDeletedEvent(1L, "Atbash"));
+
+        // assert
+        Assertions.assertThat(companyCache.get("Atbash", new CountingLoader(null))).isEmpty();
+    }
+
+    private static class CountingLoader implements Supplier<Optional<Company>> {
+
+        private final Company company;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        CountingLoader(Company company) {
+            this.company = company;
+        }
+
+        @Override
+        public Optional<Company> get() {
+            calls.incrementAndGet();
+            return Optional.ofNullable(company);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.cache;
+
+import be.atbash.demo.spring.rest.dto.CompanyDTOWithId;
+import be.atbash.demo.spring.rest.event.CompanyCreatedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class CompanyResponseCacheTest {
+
+    private final CompanyResponseCache companyResponseCache = new CompanyResponseCache(List.of(
+            new MappingJackson2CborHttpMessageConverter(), new MappingJackson2HttpMessageConverter(new ObjectMapper())), 2);
+
+    @Test
+    void get() {
+        // arrange
+        AtomicInteger calls = new AtomicInteger();
+
+        // act
+        CompanyResponseCache.CachedResponse first = companyResponseCache.get("company:Atbash", MediaType.APPLICATION_JSON, () -> {
+            calls.incrementAndGet();
+            return new CompanyDTOWithId(1L, "Atbash");
+        });
+        CompanyResponseCache.CachedResponse second = companyResponseCache.get("company:Atbash", MediaType.APPLICATION_JSON, () -> {
+            calls.incrementAndGet();
+            return new CompanyDTOWithId(1L, "Atbash");
+        });
+
+        // assert
+        Assertions.assertThat(calls.get()).isEqualTo(1);
+        Assertions.assertThat(second).isSameAs(first);
+        Assertions.assertThat(new String(second.body(), StandardCharsets.UTF_8)).isEqualTo("{\"id\":1,\"name\":\"Atbash\"}");
+        Assertions.assertThat(second.eTag()).startsWith("\"0").endsWith("\"");
+    }
+
+    @Test
+    void get_perMediaType() {
+        // act
+        CompanyResponseCache.CachedResponse json = companyResponseCache.get("company:Atbash", MediaType.APPLICATION_JSON, () -> new CompanyDTOWithId(1L, "Atbash"));
+        CompanyResponseCache.CachedResponse cbor = companyResponseCache.get("company:Atbash", MediaType.APPLICATION_CBOR, () -> new CompanyDTOWithId(1L, "Atbash"));
+
+        // assert
+        Assertions.assertThat(companyResponseCache.getMediaTypes()).containsExactly(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR);
+        Assertions.assertThat(cbor.contentType()).isEqualTo(MediaType.APPLICATION_CBOR);
+        Assertions.assertThat(cbor.body()).isNotEqualTo(json.body()).hasSizeLessThan(json.body().length);
+        Assertions.assertThat(cbor.eTag()).isNotEqualTo(json.eTag());
+        Assertions.assertThat(companyResponseCache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void get_exceptionIsNotCached() {
+        // act
+        Assertions.assertThatThrownBy(() -> companyResponseCache.get("company:Atbash", MediaType.APPLICATION_JSON, () -> {
+            throw new IllegalStateException();
+        })).isInstanceOf(IllegalStateException.class);
+
+        // assert
+        Assertions.assertThat(companyResponseCache.size()).isZero();
+    }
+
+    @Test
+    void onCompanyCreated() {
+        // arrange
+        CompanyResponseCache.CachedResponse before = companyResponseCache.get(CompanyResponseCache.ALL_COMPANIES, MediaType.APPLICATION_JSON, () -> new CompanyDTOWithId[]{new CompanyDTOWithId(1L, "Atbash")});
+
+        // act
+        companyResponseCache.onCompanyCreated(new CompanyCreatedEvent(2L, "JUnit"));
+
+        // assert
+        CompanyResponseCache.CachedResponse after = companyResponseCache.get(CompanyResponseCache.ALL_COMPANIES, MediaType.APPLICATION_JSON, () -> new CompanyDTOWithId[]{new CompanyDTOWithId(1L, "Atbash"), new CompanyDTOWithId(2L, "JUnit")});
+        Assertions.assertThat(after.eTag()).isNotEqualTo(before.eTag());
+    }
+}
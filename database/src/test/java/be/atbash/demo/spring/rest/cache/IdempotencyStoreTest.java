@@ -0,0 +1,125 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.cache;
+
+import be.atbash.demo.spring.rest.cache.IdempotencyStore.Outcome;
+import be.atbash.demo.spring.rest.cache.IdempotencyStore.Reservation;
+import be.atbash.demo.spring.rest.cache.IdempotencyStore.StoredResponse;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyStoreTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+
+    @Mock
+    private Clock clockMock;
+
+    private IdempotencyStore idempotencyStore;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyStore = new IdempotencyStore(clockMock, 2, Duration.ofHours(1));
+        Mockito.when(clockMock.instant()).thenReturn(NOW);
+    }
+
+    @Test
+    void reserve() {
+        // arrange
+        StoredResponse response = new StoredResponse(201, "application/json", "/company/1", new byte[]{1, 2});
+
+        // act
+        Reservation first = idempotencyStore.reserve("key", "fingerprint");
+        Reservation inFlight = idempotencyStore.reserve("key", "fingerprint");
+        idempotencyStore.complete("key", response);
+        Reservation replay = idempotencyStore.reserve("key", "fingerprint");
+        Reservation mismatch = idempotencyStore.reserve("key", "other");
+
+        // assert
+        Assertions.assertThat(first.outcome()).isEqualTo(Outcome.ACQUIRED);
+        Assertions.assertThat(inFlight.outcome()).isEqualTo(Outcome.IN_FLIGHT);
+        Assertions.assertThat(replay.outcome()).isEqualTo(Outcome.COMPLETED);
+        Assertions.assertThat(replay.response()).isSameAs(response);
+        Assertions.assertThat(mismatch.outcome()).isEqualTo(Outcome.MISMATCH);
+    }
+
+    @Test
+    void release() {
+        // arrange
+        idempotencyStore.reserve("key", "fingerprint");
+
+        // act
+        idempotencyStore.release("key");
+
+        // assert
+        Assertions.assertThat(idempotencyStore.reserve("key", "fingerprint").outcome()).isEqualTo(Outcome.ACQUIRED);
+    }
+
+    @Test
+    void reserve_expired() {
+        // arrange
+        idempotencyStore.reserve("key", "fingerprint");
+        idempotencyStore.complete("key", new StoredResponse(200, null, null, new byte[0]));
+        Mockito.when(clockMock.instant()).thenReturn(NOW.plus(Duration.ofHours(1)));
+
+        // act
+        Reservation reservation = idempotencyStore.reserve("key", "fingerprint");
+
+        // assert
+        Assertions.assertThat(reservation.outcome()).isEqualTo(Outcome.ACQUIRED);
+    }
+
+    @Test
+    void reserve_bounded() {
+        // act
+        idempotencyStore.reserve("key1", "fingerprint");
+        idempotencyStore.complete("key1", new StoredResponse(200, null, null, new byte[0]));
+        idempotencyStore.reserve("key2", "fingerprint");
+        idempotencyStore.complete("key2", new StoredResponse(200, null, null, new byte[0]));
+        idempotencyStore.reserve("key3", "fingerprint");
+
+        // assert
+        Assertions.assertThat(idempotencyStore.size()).isEqualTo(2);
+        Assertions.assertThat(idempotencyStore.reserve("key1", "fingerprint").outcome()).isEqualTo(Outcome.ACQUIRED);
+    }
+
+    @Test
+    void reserve_bounded_inFlightNotRemoved() {
+        // arrange
+        idempotencyStore.reserve("key1", "fingerprint");
+        idempotencyStore.reserve("key2", "fingerprint");
+        idempotencyStore.complete("key2", new StoredResponse(200, null, null, new byte[0]));
+
+        // act
+        Reservation third = idempotencyStore.reserve("key3", "fingerprint");
+        Reservation fourth = idempotencyStore.reserve("key4", "fingerprint");
+
+        // assert
+        Assertions.assertThat(third.outcome()).isEqualTo(Outcome.ACQUIRED);  // completed key2 is removed
+        Assertions.assertThat(fourth.outcome()).isEqualTo(Outcome.FULL);
+        Assertions.assertThat(idempotencyStore.reserve("key1", "fingerprint").outcome()).isEqualTo(Outcome.IN_FLIGHT);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.concurrent;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    void tryAcquire_limitReached() {
+        // arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10);
+
+        // act
+        boolean first = limiter.tryAcquire();
+        boolean second = limiter.tryAcquire();
+        boolean third = limiter.tryAcquire();
+
+        // assert
+        Assertions.assertThat(first).isTrue();
+        Assertions.assertThat(second).isTrue();
+        Assertions.assertThat(third).isFalse();
+        Assertions.assertThat(limiter.getInFlight()).isEqualTo(2);
+        Assertions.assertThat(limiter.getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    void release_stableLatencyIncreasesLimit() {
+        // arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 5, 200);
+        acquire(limiter, 20);
+
+        // act
+        executeRequests(limiter, 50, 10);
+
+        // assert
+        Assertions.assertThat(limiter.getLimit()).isGreaterThan(20);
+    }
+
+    @Test
+    void release_risingLatencyDecreasesLimit() {
+        // arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 5, 200);
+        acquire(limiter, 20);
+        executeRequests(limiter, 50, 10);
+        int limitBefore = limiter.getLimit();
+        // More clients, up to the limit
+        acquire(limiter, limitBefore);
+
+        // act
+        executeRequests(limiter, 50, 200);
+
+        // assert
+        Assertions.assertThat(limiter.getLimit()).isLessThan(limitBefore).isLessThan(20).isGreaterThanOrEqualTo(5);
+        Assertions.assertThat(limiter.getRejected()).isPositive();
+    }
+
+    @Test
+    void release_notBusyKeepsLimit() {
+        // arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 5, 200);
+        acquire(limiter, 1);
+
+        // act
+        executeRequests(limiter, 50, 10);
+        executeRequests(limiter, 50, 200);
+
+        // assert
+        Assertions.assertThat(limiter.getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    void releaseWithoutSample() {
+        // arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 10);
+        limiter.tryAcquire();
+
+        // act
+        limiter.releaseWithoutSample();
+
+        // assert
+        Assertions.assertThat(limiter.getInFlight()).isZero();
+        Assertions.assertThat(limiter.getLimit()).isEqualTo(1);
+        Assertions.assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void invalidLimits() {
+        Assertions.assertThatThrownBy(() -> new AdaptiveConcurrencyLimiter(5, 10, 200))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void acquire(AdaptiveConcurrencyLimiter limiter, int permits) {
+        for (int i = 0; i < permits; i++) {
+            limiter.tryAcquire();
+        }
+    }
+
+    private static void executeRequests(AdaptiveConcurrencyLimiter limiter, int count, long latencyMillis) {
+        // A new request starts each time one finishes, keeps the limiter busy.
+        for (int i = 0; i < count; i++) {
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+            limiter.tryAcquire();
+        }
+    }
+}
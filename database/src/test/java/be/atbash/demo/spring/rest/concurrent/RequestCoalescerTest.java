@@ -0,0 +1,100 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.concurrent;
+
+import be.atbash.demo.spring.rest.exception.BusinessValidationException;
+import be.atbash.demo.spring.rest.exception.DomainErrorCodes;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class RequestCoalescerTest {
+
+    private final RequestCoalescer requestCoalescer = new RequestCoalescer();
+
+    @Test
+    void execute_concurrentCallsShareResult() throws Exception {
+        // arrange
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+
+        // act
+        Future<String> first = executor.submit(() -> requestCoalescer.execute("key", () -> {
+            calls.incrementAndGet();
+            started.countDown();
+            awaitQuietly(release);
+            return "result";
+        }));
+        started.await();
+
+        List<Future<String>> others = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            others.add(executor.submit(() -> requestCoalescer.execute("key", () -> {
+                calls.incrementAndGet();
+                return "other";
+            })));
+        }
+        Thread.sleep(100);  // give the other calls the time to join the in-flight call
+        release.countDown();
+
+        // assert
+        Assertions.assertThat(first.get(1, TimeUnit.SECONDS)).isEqualTo("result");
+        for (Future<String> other : others) {
+            Assertions.assertThat(other.get(1, TimeUnit.SECONDS)).isEqualTo("result");
+        }
+        Assertions.assertThat(calls.get()).isEqualTo(1);
+        executor.shutdown();
+    }
+
+    @Test
+    void execute_noCachingAfterCompletion() {
+        // arrange
+        AtomicInteger calls = new AtomicInteger();
+
+        // act
+        requestCoalescer.execute("key", calls::incrementAndGet);
+        Integer second = requestCoalescer.execute("key", calls::incrementAndGet);
+
+        // assert
+        Assertions.assertThat(second).isEqualTo(2);
+    }
+
+    @Test
+    void execute_exception() {
+        // act
+        Assertions.assertThatThrownBy(() -> requestCoalescer.execute("key", () -> {
+                    throw new BusinessValidationException(DomainErrorCodes.COMPANY_NAME_NOT_FOUND);
+                }))
+                .isInstanceOf(BusinessValidationException.class);
+
+        // assert, the failed call is no longer in flight
+        Assertions.assertThat(requestCoalescer.execute("key", () -> "ok")).isEqualTo("ok");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.concurrent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+class VirtualThreadPinningMonitorTest {
+
+    @Test
+    void lifecycle() {
+        // arrange
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(Duration.ofMillis(20));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        monitor.bindTo(registry);
+
+        // act
+        // Also on a runtime without the jdk.VirtualThreadPinned event (before Java 21), the event is just never emitted.
+        monitor.start();
+        boolean running = monitor.isRunning();
+        monitor.stop();
+
+        // assert
+        Assertions.assertThat(running).isTrue();
+        Assertions.assertThat(monitor.isRunning()).isFalse();
+        Assertions.assertThat(registry.find("jvm.threads.virtual.pinned").timer()).isNotNull();
+    }
+}
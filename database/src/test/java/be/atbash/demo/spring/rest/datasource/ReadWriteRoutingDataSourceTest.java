@@ -0,0 +1,114 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.datasource;
+
+import org.assertj.core.api.Assertions;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Two H2 in-memory databases stand in for the primary and the replica. DATABASE() tells us where the query ran.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private final DataSource primary = h2("PRIMARY");
+    private final DataSource replica = h2("REPLICA");
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void readOnlyTransactionUsesReplica() {
+        // arrange
+        setUp(replica, null);
+
+        // act
+        transactionTemplate.setReadOnly(true);
+        String readOnly = transactionTemplate.execute(status -> currentDatabase());
+        transactionTemplate.setReadOnly(false);
+        String readWrite = transactionTemplate.execute(status -> currentDatabase());
+
+        // assert
+        Assertions.assertThat(readOnly).isEqualTo("REPLICA");
+        Assertions.assertThat(readWrite).isEqualTo("PRIMARY");
+    }
+
+    @Test
+    void replicaBehindUsesPrimary() {
+        // arrange, the lag query reports a lag of 60 seconds.
+        setUp(replica, "SELECT 60");
+
+        // act
+        transactionTemplate.setReadOnly(true);
+        String readOnly = transactionTemplate.execute(status -> currentDatabase());
+
+        // assert
+        Assertions.assertThat(readOnly).isEqualTo("PRIMARY");
+    }
+
+    @Test
+    void replicaWithinToleranceUsesReplica() {
+        // arrange
+        setUp(replica, "SELECT 2");
+
+        // act
+        transactionTemplate.setReadOnly(true);
+        String readOnly = transactionTemplate.execute(status -> currentDatabase());
+
+        // assert
+        Assertions.assertThat(readOnly).isEqualTo("REPLICA");
+    }
+
+    @Test
+    void replicaDownUsesPrimary() {
+        // arrange, IFEXISTS makes the connection fail as the database doesn't exist.
+        JdbcDataSource unavailable = new JdbcDataSource();
+        unavailable.setURL("jdbc:h2:mem:UNAVAILABLE;IFEXISTS=TRUE");
+        setUp(unavailable, null);
+
+        // act
+        transactionTemplate.setReadOnly(true);
+        String readOnly = transactionTemplate.execute(status -> currentDatabase());
+
+        // assert
+        Assertions.assertThat(readOnly).isEqualTo("PRIMARY");
+    }
+
+    private void setUp(DataSource replicaDataSource, String lagQuery) {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replicaDataSource, Duration.ofSeconds(5), Duration.ofSeconds(5), lagQuery, null, Clock.systemUTC());
+        DataSource dataSource = new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replicaDataSource, monitor));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("SELECT DATABASE()", String.class);
+    }
+
+    private static DataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+}
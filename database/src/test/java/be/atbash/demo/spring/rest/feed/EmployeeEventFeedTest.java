@@ -0,0 +1,145 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.feed;
+
+import be.atbash.demo.spring.rest.dto.EmployeeWithIdDTO;
+import be.atbash.demo.spring.rest.event.CompanyDeletedEvent;
+import be.atbash.demo.spring.rest.event.EmployeeCreatedEvent;
+import be.atbash.demo.spring.rest.model.Gender;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+class EmployeeEventFeedTest {
+
+    // Tasks are only executed when we run them, to simulate a slow client.
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    private final EmployeeEventFeed employeeEventFeed = new EmployeeEventFeed(tasks::add, 2, Duration.ofMinutes(1));
+
+    @Test
+    void onEmployeeCreated() {
+        // arrange
+        RecordingEmitter emitter = new RecordingEmitter();
+        RecordingEmitter otherCompanyEmitter = new RecordingEmitter();
+        employeeEventFeed.subscribe(1L, emitter);
+        employeeEventFeed.subscribe(2L, otherCompanyEmitter);
+
+        // act
+        employeeEventFeed.onEmployeeCreated(new EmployeeCreatedEvent(1L, employee(10L)));
+        runTasks();
+
+        // assert
+        Assertions.assertThat(emitter.events).containsExactly("created");
+        Assertions.assertThat(otherCompanyEmitter.events).isEmpty();
+    }
+
+    @Test
+    void onEmployeeCreated_sameCompany() {
+        // arrange
+        RecordingEmitter emitter = new RecordingEmitter();
+        RecordingEmitter otherEmitter = new RecordingEmitter();
+        employeeEventFeed.subscribe(1L, emitter);
+        employeeEventFeed.subscribe(1L, otherEmitter);
+        List<String> expected = parts(SseEmitter.event()
+                .id("10")
+                .name("created")
+                .data(employee(10L), MediaType.APPLICATION_JSON));
+
+        // act
+        employeeEventFeed.onEmployeeCreated(new EmployeeCreatedEvent(1L, employee(10L)));
+        runTasks();
+
+        // assert
+        // Each subscriber has its own builder, building a shared one again adds blank data parts.
+        Assertions.assertThat(emitter.parts).containsExactly(expected);
+        Assertions.assertThat(otherEmitter.parts).containsExactly(expected);
+    }
+
+    @Test
+    void onEmployeeCreated_slowSubscriber() {
+        // arrange
+        RecordingEmitter emitter = new RecordingEmitter();
+        employeeEventFeed.subscribe(1L, emitter);
+
+        // act
+        employeeEventFeed.onEmployeeCreated(new EmployeeCreatedEvent(1L, employee(10L)));
+        employeeEventFeed.onEmployeeCreated(new EmployeeCreatedEvent(1L, employee(11L)));
+        employeeEventFeed.onEmployeeCreated(new EmployeeCreatedEvent(1L, employee(12L)));  // buffer is full
+        runTasks();
+
+        // assert
+        Assertions.assertThat(emitter.events).containsExactly("resync", "created");
+        Assertions.assertThat(tasks).isEmpty();  // only one drain task per subscriber
+    }
+
+    @Test
+    void onCompanyDeleted() {
+        // arrange
+        RecordingEmitter emitter = new RecordingEmitter();
+        employeeEventFeed.subscribe(1L, emitter);
+
+        // act
+        employeeEventFeed.onCompanyDeleted(new CompanyDeletedEvent(1L, "Atbash"));
+        runTasks();
+
+        // assert
+        Assertions.assertThat(emitter.events).containsExactly("deleted");
+        Assertions.assertThat(employeeEventFeed.subscriberCount()).isZero();
+    }
+
+    private void runTasks() {
+        List<Runnable> toRun = new ArrayList<>(tasks);
+        tasks.clear();
+        toRun.forEach(Runnable::run);
+    }
+
+    private static EmployeeWithIdDTO employee(Long id) {
+        return new EmployeeWithIdDTO(id, "employee" + id + "@acme.org", "First", "Last", null, Gender.OTHER, "Atbash");
+    }
+
+    private static List<String> parts(SseEmitter.SseEventBuilder builder) {
+        return builder.build().stream()
+                .map(data -> String.valueOf(data.getData()))
+                .toList();
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<String> events = new ArrayList<>();
+        private final List<List<String>> parts = new ArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            Set<DataWithMediaType> built = builder.build();
+            parts.add(built.stream()
+                    .map(data -> String.valueOf(data.getData()))
+                    .toList());
+            // The first part of the event is the 'event:<name>' line (or the 'id:' line).
+            built.stream()
+                    .map(data -> data.getData().toString())
+                    .filter(line -> line.contains("event:"))
+                    .findFirst()
+                    .ifPresent(line -> events.add(line.substring(line.indexOf("event:") + 6).lines().findFirst().orElse("")));
+        }
+    }
+}
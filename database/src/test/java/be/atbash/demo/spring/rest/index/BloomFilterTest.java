@@ -0,0 +1,59 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.index;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+    @Test
+    void mightContain_noFalseNegatives() {
+        // arrange
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("employee" + i + "@acme.org");
+        }
+
+        // act & assert
+        for (int i = 0; i < 10_000; i++) {
+            Assertions.assertThat(filter.mightContain("employee" + i + "@acme.org")).isTrue();
+        }
+    }
+
+    @Test
+    void mightContain_falsePositiveRate() {
+        // arrange
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("employee" + i + "@acme.org");
+        }
+
+        // act
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("other" + i + "@acme.org")) {
+                falsePositives++;
+            }
+        }
+
+        // assert
+        // Expected is 1%, allow some margin
+        Assertions.assertThat(falsePositives).isLessThan(200);
+        Assertions.assertThat(filter.expectedFalsePositiveRate()).isBetween(0.005, 0.015);
+        Assertions.assertThat(filter.isSaturated()).isFalse();
+    }
+}
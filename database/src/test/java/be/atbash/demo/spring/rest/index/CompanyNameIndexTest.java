@@ -0,0 +1,85 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.index;
+
+import be.atbash.demo.spring.rest.event.CompanyCreatedEvent;
+import be.atbash.demo.spring.rest.event.CompanyDeletedEvent;
+import be.atbash.demo.spring.rest.repository.CompanyRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+class CompanyNameIndexTest {
+
+    @Mock
+    private CompanyRepository companyRepositoryMock;
+    @Mock
+    private PlatformTransactionManager transactionManagerMock;
+
+    private CompanyNameIndex companyNameIndex;
+
+    @BeforeEach
+    void setUp() {
+        companyNameIndex = new CompanyNameIndex(companyRepositoryMock, transactionManagerMock);
+        Mockito.when(companyRepositoryMock.findAllNames()).thenReturn(List.of("Atbash", "acme", "Apple", "JUnit", "Acme Corp"));
+        companyNameIndex.rebuild();
+    }
+
+    @Test
+    void suggest() {
+        // act
+        List<String> names = companyNameIndex.suggest("AC", 10);
+
+        // assert
+        Assertions.assertThat(names).containsExactly("acme", "Acme Corp");
+    }
+
+    @Test
+    void suggest_limit() {
+        // act
+        List<String> names = companyNameIndex.suggest("a", 2);
+
+        // assert
+        Assertions.assertThat(names).containsExactly("acme", "Acme Corp");
+    }
+
+    @Test
+    void suggest_noMatch() {
+        // act
+        List<String> names = companyNameIndex.suggest("zz", 10);
+
+        // assert
+        Assertions.assertThat(names).isEmpty();
+    }
+
+    @Test
+    void onChange() {
+        // act
+        companyNameIndex.onCompanyCreated(new CompanyCreatedEvent(10L, "Azul"));
+        companyNameIndex.onCompanyDeleted(new CompanyDeletedEvent(1L, "Atbash"));
+
+        // assert
+        Assertions.assertThat(companyNameIndex.suggest("a", 10)).containsExactly("acme", "Acme Corp", "Apple", "Azul");
+    }
+}
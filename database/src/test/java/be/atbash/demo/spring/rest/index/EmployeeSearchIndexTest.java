@@ -0,0 +1,124 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.index;
+
+import be.atbash.demo.spring.rest.dto.EmployeeWithIdDTO;
+import be.atbash.demo.spring.rest.event.CompanyDeletedEvent;
+import be.atbash.demo.spring.rest.event.EmployeeCreatedEvent;
+import be.atbash.demo.spring.rest.exception.BusinessValidationException;
+import be.atbash.demo.spring.rest.model.Gender;
+import be.atbash.demo.spring.rest.repository.EmployeeRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeSearchIndexTest {
+
+    @Mock
+    private EmployeeRepository employeeRepositoryMock;
+    @Mock
+    private PlatformTransactionManager transactionManagerMock;
+
+    private EmployeeSearchIndex employeeSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        employeeSearchIndex = new EmployeeSearchIndex(employeeRepositoryMock, transactionManagerMock);
+        Mockito.when(employeeRepositoryMock.streamAllDto()).thenReturn(Stream.of(
+                employee(1L, "John", "Doe", "john.doe@acme.org", "Acme"),
+                employee(2L, "Jane", "Doe", "jane.doe@acme.org", "Acme"),
+                employee(3L, "José", "Johnson", "jose@atbash.be", "Atbash")
+        ));
+        employeeSearchIndex.rebuild();
+    }
+
+    @Test
+    void search() {
+        // act
+        List<EmployeeWithIdDTO> result = employeeSearchIndex.search("doe", 10);
+
+        // assert
+        Assertions.assertThat(result).extracting(EmployeeWithIdDTO::id).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void search_bestMatchFirst() {
+        // act
+        // Johnson contains 'john' (1) but the first name John is an exact match (3)
+        List<EmployeeWithIdDTO> result = employeeSearchIndex.search("John", 10);
+
+        // assert
+        Assertions.assertThat(result).extracting(EmployeeWithIdDTO::id).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void search_allWordsMustMatch() {
+        // act
+        List<EmployeeWithIdDTO> result = employeeSearchIndex.search("jose atbash", 10);
+
+        // assert
+        Assertions.assertThat(result).extracting(EmployeeWithIdDTO::id).containsExactly(3L);
+    }
+
+    @Test
+    void search_limit() {
+        // act
+        List<EmployeeWithIdDTO> result = employeeSearchIndex.search("acme", 1);
+
+        // assert
+        Assertions.assertThat(result).extracting(EmployeeWithIdDTO::id).containsExactly(1L);
+    }
+
+    @Test
+    void search_tooShort() {
+        // act
+        Assertions.assertThatThrownBy(() -> employeeSearchIndex.search("jo d", 10))
+                .isInstanceOf(BusinessValidationException.class);
+    }
+
+    @Test
+    void onEmployeeCreated() {
+        // act
+        employeeSearchIndex.onEmployeeCreated(new EmployeeCreatedEvent(1L, employee(4L, "Jack", "Doe", "jack.doe@acme.org", "Acme")));
+
+        // assert
+        Assertions.assertThat(employeeSearchIndex.search("jack", 10)).extracting(EmployeeWithIdDTO::id).containsExactly(4L);
+    }
+
+    @Test
+    void onCompanyDeleted() {
+        // act
+        employeeSearchIndex.onCompanyDeleted(new CompanyDeletedEvent(1L, "Acme"));
+
+        // assert
+        Assertions.assertThat(employeeSearchIndex.search("doe", 10)).isEmpty();
+        Assertions.assertThat(employeeSearchIndex.search("johnson", 10)).extracting(EmployeeWithIdDTO::id).containsExactly(3L);
+        Assertions.assertThat(employeeSearchIndex.size()).isEqualTo(1);
+    }
+
+    private static EmployeeWithIdDTO employee(Long id, String firstName, String lastName, String email, String company) {
+        return new EmployeeWithIdDTO(id, email, firstName, lastName, null, Gender.OTHER, company);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.json;
+
+import be.atbash.demo.spring.rest.dto.CompanyDTO;
+import be.atbash.demo.spring.rest.dto.CompanyDTOWithId;
+import be.atbash.demo.spring.rest.dto.EmployeeWithIdDTO;
+import be.atbash.demo.spring.rest.dto.EmployeeWithoutIdDTO;
+import be.atbash.demo.spring.rest.model.Gender;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+
+class DtoModuleTest {
+
+    // Same settings as Spring Boot (dates as ISO string), the default handling of the records is the reference.
+    private final ObjectMapper defaultMapper = Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+    private final ObjectMapper moduleMapper = Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).modulesToInstall(new DtoModule()).build();
+
+    @Test
+    void serialize_sameAsDefault() throws Exception {
+        // arrange
+        List<Object> values = List.of(
+                new CompanyDTO("Atbash"),
+                new CompanyDTOWithId(1L, "Atbash \"quoted\""),
+                new EmployeeWithIdDTO(1L, "john.doe@acme.org", "John", "Doe", LocalDate.of(2020, 1, 31), Gender.MALE, new CompanyDTO("Acme")),
+                new EmployeeWithIdDTO(null, null, null, null, null, null, (CompanyDTO) null),
+                new EmployeeWithoutIdDTO("jane.doe@acme.org", "Jane", "Doe", LocalDate.of(2021, 12, 1), Gender.FEMALE, new CompanyDTO("Acme")));
+
+        for (Object value : values) {
+            // act
+            String json = moduleMapper.writeValueAsString(value);
+
+            // assert
+            Assertions.assertThat(json).isEqualTo(defaultMapper.writeValueAsString(value));
+        }
+    }
+
+    @Test
+    void serialize_datesAsTimestamps() throws Exception {
+        // arrange
+        ObjectMapper timestampMapper = Jackson2ObjectMapperBuilder.json().modulesToInstall(new DtoModule()).build();
+        EmployeeWithIdDTO employee = new EmployeeWithIdDTO(5L, "john.doe@acme.org", "John", "Doe", LocalDate.of(2020, 1, 31), Gender.OTHER, new CompanyDTO("Acme"));
+
+        // act
+        String json = timestampMapper.writeValueAsString(employee);
+
+        // assert
+        Assertions.assertThat(json).contains("\"hireDate\":[2020,1,31]");
+        Assertions.assertThat(timestampMapper.readValue(json, EmployeeWithIdDTO.class)).isEqualTo(employee);
+    }
+
+    @Test
+    void deserialize_sameAsDefault() throws Exception {
+        // arrange
+        String json = "{\"email\":\"jane.doe@acme.org\",\"firstName\":\"Jane\",\"unknown\":{\"nested\":[1,2]},\"lastName\":null" +
+                ",\"hireDate\":\"2021-12-01\",\"gender\":\"FEMALE\",\"company\":{\"name\":\"Acme\"}}";
+
+        // act
+        EmployeeWithoutIdDTO employee = moduleMapper.readValue(json, EmployeeWithoutIdDTO.class);
+
+        // assert
+        Assertions.assertThat(employee).isEqualTo(defaultMapper.readValue(json, EmployeeWithoutIdDTO.class));
+        Assertions.assertThat(employee.company()).isEqualTo(new CompanyDTO("Acme"));
+    }
+
+    @Test
+    void deserialize_dateNotPlain_sameAsDefault() throws Exception {
+        for (String hireDate : List.of("", "  ", " 2021-12-01 ", "2021-12-01T10:15:30")) {
+            // arrange
+            String json = "{\"email\":\"jane.doe@acme.org\",\"hireDate\":\"" + hireDate + "\"}";
+
+            // act
+            EmployeeWithoutIdDTO employee = moduleMapper.readValue(json, EmployeeWithoutIdDTO.class);
+
+            // assert
+            Assertions.assertThat(employee).isEqualTo(defaultMapper.readValue(json, EmployeeWithoutIdDTO.class));
+        }
+    }
+
+    @Test
+    void deserialize_roundTrip() throws Exception {
+        // arrange
+        EmployeeWithIdDTO employee = new EmployeeWithIdDTO(5L, "john.doe@acme.org", "John", "Doe", LocalDate.of(2020, 1, 31), Gender.OTHER, new CompanyDTO("Acme"));
+
+        // act
+        EmployeeWithIdDTO[] result = moduleMapper.readValue(moduleMapper.writeValueAsBytes(List.of(employee)), EmployeeWithIdDTO[].class);
+
+        // assert
+        Assertions.assertThat(result).containsExactly(employee);
+    }
+
+    @Test
+    void deserialize_invalidDate() {
+        // arrange
+        String json = "{\"email\":\"jane.doe@acme.org\",\"hireDate\":\"2021-02-30\"}";
+
+        // act
+        Assertions.assertThatThrownBy(() -> moduleMapper.readValue(json, EmployeeWithoutIdDTO.class))
+                .isInstanceOf(InvalidFormatException.class);
+    }
+
+    @Test
+    void deserialize_invalidGender() {
+        // arrange
+        String json = "{\"email\":\"jane.doe@acme.org\",\"gender\":\"UNKNOWN\"}";
+
+        // act
+        Assertions.assertThatThrownBy(() -> moduleMapper.readValue(json, EmployeeWithoutIdDTO.class))
+                .isInstanceOf(InvalidFormatException.class);
+    }
+}
@@ -16,6 +16,7 @@
 package be.atbash.demo.spring.rest.repository;
 
 import be.atbash.demo.spring.rest.builder.EmployeeBuilder;
+import be.atbash.demo.spring.rest.dto.EmployeeWithIdDTO;
 import be.atbash.demo.spring.rest.model.Company;
 import be.atbash.demo.spring.rest.model.Employee;
 import be.atbash.demo.spring.rest.model.Gender;
@@ -27,6 +28,7 @@ import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -41,6 +43,9 @@ class EmployeeRepositoryTest {
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    private Company junit;
+    private Company atbash;
+
     @BeforeEach
     void setUp() {
         prepareTestData();
@@ -58,15 +63,65 @@ class EmployeeRepositoryTest {
 
     }
 
+    @Test
+    void findAllDtoByCompanyId() {
+
+        // act
+        List<EmployeeWithIdDTO> employees = employeeRepository.findAllDtoByCompanyId(junit.getId());
+
+        // assert
+        Assertions.assertThat(employees).extracting(EmployeeWithIdDTO::email).containsExactly("john.doe@acme.org", "jane.doe@acme.org");
+        Assertions.assertThat(employees).extracting(e -> e.company().name()).containsOnly("JUnit");
+    }
+
+    @Test
+    void findPageDtoByCompanyId() {
+
+        // act
+        List<EmployeeWithIdDTO> firstPage = employeeRepository.findPageDtoByCompanyId(junit.getId(), 0L, Limit.of(1));
+        List<EmployeeWithIdDTO> secondPage = employeeRepository.findPageDtoByCompanyId(junit.getId(), firstPage.get(0).id(), Limit.of(1));
+        List<EmployeeWithIdDTO> thirdPage = employeeRepository.findPageDtoByCompanyId(junit.getId(), secondPage.get(0).id(), Limit.of(1));
+
+        // assert
+        Assertions.assertThat(firstPage).extracting(EmployeeWithIdDTO::email).containsExactly("john.doe@acme.org");
+        Assertions.assertThat(secondPage).extracting(EmployeeWithIdDTO::email).containsExactly("jane.doe@acme.org");
+        Assertions.assertThat(thirdPage).isEmpty();
+    }
+
+    @Test
+    void findExistingEmails() {
+
+        // act
+        List<String> emails = employeeRepository.findExistingEmails(List.of("john.doe@acme.org", "info@atbash.be", "unknown@acme.org"));
+
+        // assert
+        Assertions.assertThat(emails).containsExactlyInAnyOrder("john.doe@acme.org", "info@atbash.be");
+    }
+
+    @Test
+    void countPerCompanyGenderAndHireYear() {
+
+        // act
+        List<EmployeeStatsRow> rows = employeeRepository.countPerCompanyGenderAndHireYear();
+
+        // assert
+        Assertions.assertThat(rows).containsExactlyInAnyOrder(
+                new EmployeeStatsRow(junit.getId(), Gender.MALE, 2020, 1),
+                new EmployeeStatsRow(junit.getId(), Gender.FEMALE, 2020, 1),
+                new EmployeeStatsRow(atbash.getId(), Gender.MALE, 2018, 1));
+    }
+
     private void prepareTestData() {
         // This is not ideal, we should prepare a database with data in another way. See 'test-data'.
         Company company1 = new Company();
         company1.setName("JUnit");
         entityManager.persist(company1);
+        junit = company1;
 
         Company company2 = new Company();
         company2.setName("Atbash");
         entityManager.persist(company2);
+        atbash = company2;
 
         Employee employee1 = new EmployeeBuilder()
                 .withFirstName("John")
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.service;
+
+import be.atbash.demo.spring.rest.dto.ChangeDTO;
+import be.atbash.demo.spring.rest.dto.ChangesDTO;
+import be.atbash.demo.spring.rest.event.CompanyCreatedEvent;
+import be.atbash.demo.spring.rest.mapper.ChangeLogMapperService;
+import be.atbash.demo.spring.rest.model.ChangeEntityType;
+import be.atbash.demo.spring.rest.model.ChangeLog;
+import be.atbash.demo.spring.rest.model.ChangeType;
+import be.atbash.demo.spring.rest.repository.ChangeLogJdbcRepository;
+import be.atbash.demo.spring.rest.repository.ChangeLogRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeLogServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T12:00:00Z");
+
+    @Mock
+    private ChangeLogRepository changeLogRepositoryMock;
+    @Mock
+    private ChangeLogJdbcRepository changeLogJdbcRepositoryMock;
+    @Mock
+    private Clock clockMock;
+
+    private ChangeLogService changeLogService;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.lenient().when(clockMock.instant()).thenReturn(NOW);
+        changeLogService = new ChangeLogService(changeLogRepositoryMock, new ChangeLogMapperService(new ObjectMapper()), new ObjectMapper(), changeLogJdbcRepositoryMock
+                , Duration.ofSeconds(5), clockMock);
+    }
+
+    @Test
+    void getChanges() {
+        // arrange
+        // limit of 1, so the service asks for 2 records to detect more changes.
+        Mockito.when(changeLogRepositoryMock.findChanges(Mockito.eq(10L), Mockito.any(Instant.class), Mockito.eq(Limit.of(2))))
+                .thenReturn(List.of(changeLog(11L), changeLog(12L)));
+
+        // act
+        ChangesDTO changes = changeLogService.getChanges(CursorCodec.encode(10L), 1);
+
+        // assert
+        Assertions.assertThat(changes.changes()).extracting(ChangeDTO::id).containsExactly(11L);
+        Assertions.assertThat(changes.more()).isTrue();
+        Assertions.assertThat(CursorCodec.decode(changes.next())).isEqualTo(11L);
+    }
+
+    @Test
+    void getChanges_noChanges() {
+        // arrange
+        Mockito.when(changeLogRepositoryMock.findChanges(Mockito.eq(10L), Mockito.any(Instant.class), Mockito.any(Limit.class)))
+                .thenReturn(List.of());
+
+        // act
+        ChangesDTO changes = changeLogService.getChanges(CursorCodec.encode(10L), 100);
+
+        // assert
+        Assertions.assertThat(changes.changes()).isEmpty();
+        Assertions.assertThat(changes.more()).isFalse();
+        Assertions.assertThat(CursorCodec.decode(changes.next())).isEqualTo(10L);  // Same token, try again later.
+    }
+
+    @Test
+    void getChanges_onlySettledChanges() {
+        // arrange
+        ArgumentCaptor<Instant> settledBeforeCaptor = ArgumentCaptor.forClass(Instant.class);
+        Mockito.when(changeLogRepositoryMock.findChanges(Mockito.eq(0L), settledBeforeCaptor.capture(), Mockito.any(Limit.class)))
+                .thenReturn(List.of());
+
+        // act
+        changeLogService.getChanges(null, 100);
+
+        // assert
+        Assertions.assertThat(settledBeforeCaptor.getValue()).isEqualTo(NOW.minusSeconds(5));
+    }
+
+    @Test
+    void getChanges_outOfOrderCommit() {
+        // arrange
+        // Change 12 is inserted before 13, but its transaction commits later.
+        Mockito.when(changeLogRepositoryMock.findChanges(Mockito.eq(10L), Mockito.any(Instant.class), Mockito.any(Limit.class)))
+                .thenReturn(List.of(changeLog(11L), changeLog(13L)));
+        Mockito.when(changeLogRepositoryMock.findChanges(Mockito.eq(11L), Mockito.any(Instant.class), Mockito.any(Limit.class)))
+                .thenReturn(List.of(changeLog(12L), changeLog(13L)));
+
+        // act
+        ChangesDTO first = changeLogService.getChanges(CursorCodec.encode(10L), 100);
+        ChangesDTO second = changeLogService.getChanges(first.next(), 100);  // after the commit of 12
+
+        // assert
+        Assertions.assertThat(first.changes()).extracting(ChangeDTO::id).containsExactly(11L);  // Not past the gap
+        Assertions.assertThat(first.more()).isFalse();
+        Assertions.assertThat(CursorCodec.decode(first.next())).isEqualTo(11L);
+        Assertions.assertThat(second.changes()).extracting(ChangeDTO::id).containsExactly(12L, 13L);
+    }
+
+    @Test
+    void getChanges_gapSkippedAfterSettleTime() {
+        // arrange
+        // Change 12 is rolled back, the gap remains.
+        Mockito.when(changeLogRepositoryMock.findChanges(Mockito.eq(11L), Mockito.any(Instant.class), Mockito.any(Limit.class)))
+                .thenReturn(List.of(changeLog(13L)));
+        Mockito.when(clockMock.instant()).thenReturn(NOW, NOW.plusSeconds(4), NOW.plusSeconds(5));
+
+        // act
+        ChangesDTO first = changeLogService.getChanges(CursorCodec.encode(11L), 100);
+        ChangesDTO second = changeLogService.getChanges(CursorCodec.encode(11L), 100);
+        ChangesDTO third = changeLogService.getChanges(CursorCodec.encode(11L), 100);
+
+        // assert
+        Assertions.assertThat(first.changes()).isEmpty();
+        Assertions.assertThat(second.changes()).isEmpty();
+        Assertions.assertThat(third.changes()).extracting(ChangeDTO::id).containsExactly(13L);
+        Assertions.assertThat(CursorCodec.decode(third.next())).isEqualTo(13L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void onCompanyCreated() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // arrange
+            changeLogService.onCompanyCreated(new CompanyCreatedEvent(1L, "Atbash"));
+            Mockito.verifyNoInteractions(changeLogJdbcRepositoryMock);  // Only written at commit
+
+            // act
+            TransactionSynchronizationManager.getSynchronizations().forEach(synchronization -> synchronization.beforeCommit(false));
+
+            // assert
+            ArgumentCaptor<List<ChangeLog>> changesCaptor = ArgumentCaptor.forClass(List.class);
+            Mockito.verify(changeLogJdbcRepositoryMock).insertAll(changesCaptor.capture());
+            Assertions.assertThat(changesCaptor.getValue()).hasSize(1);
+            ChangeLog changeLog = changesCaptor.getValue().get(0);
+            Assertions.assertThat(changeLog.getEntityType()).isEqualTo(ChangeEntityType.COMPANY);
+            Assertions.assertThat(changeLog.getChangeType()).isEqualTo(ChangeType.CREATED);
+            Assertions.assertThat(changeLog.getChangedAt()).isEqualTo(NOW);  // Time of the commit
+            Assertions.assertThat(changeLog.getPayload()).isEqualTo("{\"id\":1,\"name\":\"Atbash\"}");
+        } finally {
+            TransactionSynchronizationManager.getSynchronizations().forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static ChangeLog changeLog(Long id) {
+        ChangeLog result = new ChangeLog();
+        result.setId(id);
+        result.setEntityType(ChangeEntityType.EMPLOYEE);
+        result.setChangeType(ChangeType.CREATED);
+        result.setEntityId(id);
+        result.setCompanyId(1L);
+        result.setChangedAt(Instant.now());
+        result.setPayload("{}");
+        return result;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.service;
+
+import be.atbash.demo.spring.rest.builder.CompanyBuilder;
+import be.atbash.demo.spring.rest.dto.CompanyDeletionStatusDTO;
+import be.atbash.demo.spring.rest.dto.DeletionState;
+import be.atbash.demo.spring.rest.event.CompanyDeletedEvent;
+import be.atbash.demo.spring.rest.event.CompanyPurgedEvent;
+import be.atbash.demo.spring.rest.exception.BusinessValidationException;
+import be.atbash.demo.spring.rest.exception.DomainErrorCodes;
+import be.atbash.demo.spring.rest.model.Company;
+import be.atbash.demo.spring.rest.repository.CompanyRepository;
+import be.atbash.demo.spring.rest.repository.EmployeeRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+@ExtendWith(MockitoExtension.class)
+class CompanyDeletionServiceTest {
+
+    @Mock
+    private CompanyRepository companyRepositoryMock;
+    @Mock
+    private EmployeeRepository employeeRepositoryMock;
+    @Mock
+    private ApplicationEventPublisher eventPublisherMock;
+    @Mock
+    private PlatformTransactionManager transactionManagerMock;
+
+    private CompanyDeletionService companyDeletionService;
+
+    @BeforeEach
+    void setUp() {
+        // SyncTaskExecutor, so that the background deletion is performed before startDeletion returns.
+        companyDeletionService = new CompanyDeletionService(companyRepositoryMock, employeeRepositoryMock, eventPublisherMock
+                , transactionManagerMock, new SyncTaskExecutor(), 2);
+    }
+
+    @Test
+    void startDeletion() {
+        // arrange
+        Company company = new CompanyBuilder()
+                .withId(1L)
+                .withName("Atbash")
+                .build();
+        Mockito.when(companyRepositoryMock.findByName("Atbash")).thenReturn(Optional.of(company));
+        Mockito.when(employeeRepositoryMock.countByCompanyId(1L)).thenReturn(3L);
+        Mockito.when(employeeRepositoryMock.findIdsByCompanyId(1L, Limit.of(2)))
+                .thenReturn(List.of(11L, 12L))
+                .thenReturn(List.of(13L))
+                .thenReturn(List.of());
+
+        // act
+        CompanyDeletionStatusDTO started = companyDeletionService.startDeletion("Atbash");
+
+        // assert
+        Assertions.assertThat(company.isDeleting()).isTrue();
+        Assertions.assertThat(started.totalEmployees()).isEqualTo(3L);
+
+        CompanyDeletionStatusDTO status = companyDeletionService.getStatus("Atbash");
+        Assertions.assertThat(status.state()).isEqualTo(DeletionState.COMPLETED);
+        Assertions.assertThat(status.deletedEmployees()).isEqualTo(3L);
+
+        // Employees deleted in chunks, and the company at the end.
+        InOrder inOrder = Mockito.inOrder(employeeRepositoryMock, companyRepositoryMock);
+        inOrder.verify(employeeRepositoryMock).deleteAllByIdInBatch(List.of(11L, 12L));
+        inOrder.verify(employeeRepositoryMock).deleteAllByIdInBatch(List.of(13L));
+        inOrder.verify(companyRepositoryMock).deleteById(1L);
+
+        Mockito.verify(eventPublisherMock).publishEvent(new CompanyDeletedEvent(1L, "Atbash"));
+        Mockito.verify(eventPublisherMock).publishEvent(new CompanyPurgedEvent(1L, "Atbash"));
+    }
+
+    @Test
+    void startDeletion_unknown() {
+        // arrange
+        Mockito.when(companyRepositoryMock.findByName("Atbash")).thenReturn(Optional.empty());
+
+        // act
+        CompanyDeletionStatusDTO status = companyDeletionService.startDeletion("Atbash");
+
+        // assert
+        Assertions.assertThat(status).isNull();
+        Mockito.verifyNoInteractions(employeeRepositoryMock, eventPublisherMock);
+    }
+
+    @Test
+    void getStatus_unknown() {
+        // act
+        Assertions.assertThatThrownBy(() -> companyDeletionService.getStatus("Atbash"))
+                .isInstanceOf(BusinessValidationException.class)
+                .hasMessage(DomainErrorCodes.COMPANY_DELETION_NOT_FOUND);
+    }
+}
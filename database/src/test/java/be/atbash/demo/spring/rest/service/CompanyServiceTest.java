@@ -15,8 +15,10 @@
  */
 package be.atbash.demo.spring.rest.service;
 
+import be.atbash.demo.spring.rest.cache.CompanyCache;
 import be.atbash.demo.spring.rest.dto.CompanyDTO;
 import be.atbash.demo.spring.rest.dto.CompanyDTOWithId;
+import be.atbash.demo.spring.rest.dto.CompanyMultiGetDTO;
 import be.atbash.demo.spring.rest.exception.BusinessValidationException;
 import be.atbash.demo.spring.rest.exception.DomainErrorCodes;
 import be.atbash.demo.spring.rest.mapper.CompanyMapperService;
@@ -31,7 +33,9 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -44,12 +48,57 @@ class CompanyServiceTest {
     @Mock
     private CompanyValidationService companyValidationServiceMock;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisherMock;
+
     @Spy
     private CompanyMapperService companyMapperServiceSpy;
+    @Spy
+    private final CompanyCache companyCacheSpy = new CompanyCache(100);
 
     @InjectMocks
     private CompanyService companyService;
 
+    @Test
+    void getByNames() {
+        // arrange
+        Company company1 = new Company();
+        company1.setId(1L);
+        company1.setName("Atbash");
+
+        Company company2 = new Company();
+        company2.setId(2L);
+        company2.setName("Deleting");
+        company2.setDeleting(true);
+
+        Mockito.when(companyRepositoryMock.findAllByNames(Mockito.anyCollection())).thenReturn(List.of(company1, company2));
+
+        // act
+        CompanyMultiGetDTO result = companyService.getByNames(List.of("Unknown", "Atbash", "Deleting", "Atbash"));
+
+        // assert
+        Assertions.assertThat(result.companies()).extracting(CompanyDTOWithId::name).containsExactly("Atbash");
+        Assertions.assertThat(result.missing()).containsExactly("Unknown", "Deleting");
+        Mockito.verify(companyRepositoryMock).findAllByNames(Mockito.anyCollection());
+    }
+
+    @Test
+    void getByNames_tooMany() {
+        // arrange
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i <= CompanyService.MAX_NAMES; i++) {
+            names.add("company" + i);
+        }
+
+        // act
+        Assertions.assertThatThrownBy(() -> companyService.getByNames(names))
+                .isInstanceOf(BusinessValidationException.class)
+                .hasMessage(DomainErrorCodes.COMPANY_NAMES_TOO_MANY);
+
+        // assert
+        Mockito.verifyNoInteractions(companyRepositoryMock);
+    }
+
     @Test
     void getAll() {
         // arrange
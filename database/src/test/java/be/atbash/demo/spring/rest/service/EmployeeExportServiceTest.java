@@ -0,0 +1,106 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.service;
+
+import be.atbash.demo.spring.rest.builder.EmployeeBuilder;
+import be.atbash.demo.spring.rest.dto.EmployeeExportFilter;
+import be.atbash.demo.spring.rest.dto.EmployeeWithIdDTO;
+import be.atbash.demo.spring.rest.model.Company;
+import be.atbash.demo.spring.rest.model.Employee;
+import be.atbash.demo.spring.rest.model.Gender;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@DataJpaTest  // Plain JDBC, but we need the database and the transaction like a repository.
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+@Import(EmployeeExportService.class)
+class EmployeeExportServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EmployeeExportService employeeExportService;
+
+    private Company junit;
+
+    @BeforeEach
+    void setUp() {
+        junit = new Company();
+        junit.setName("JUnit");
+        entityManager.persist(junit);
+
+        Company deleting = new Company();
+        deleting.setName("Deleting");
+        deleting.setDeleting(true);
+        entityManager.persist(deleting);
+
+        entityManager.persist(employee("john.doe@acme.org", LocalDate.of(2019, 6, 1), junit));
+        entityManager.persist(employee("jane.doe@acme.org", LocalDate.of(2021, 3, 1), junit));
+        entityManager.persist(employee("gone@acme.org", LocalDate.of(2021, 3, 1), deleting));
+        entityManager.flush();
+    }
+
+    @Test
+    void exportEmployees() {
+        // arrange
+        List<EmployeeWithIdDTO> exported = new ArrayList<>();
+
+        // act
+        employeeExportService.exportEmployees(new EmployeeExportFilter(null, null, null), exported::add);
+
+        // assert
+        // Employees of a company that is being deleted are not exported.
+        Assertions.assertThat(exported).extracting(EmployeeWithIdDTO::email).containsExactly("john.doe@acme.org", "jane.doe@acme.org");
+        Assertions.assertThat(exported.get(0).hireDate()).isEqualTo(LocalDate.of(2019, 6, 1));
+        Assertions.assertThat(exported.get(0).gender()).isEqualTo(Gender.MALE);
+        Assertions.assertThat(exported.get(0).company().name()).isEqualTo("JUnit");
+    }
+
+    @Test
+    void exportEmployees_filtered() {
+        // arrange
+        List<EmployeeWithIdDTO> exported = new ArrayList<>();
+
+        // act
+        employeeExportService.exportEmployees(new EmployeeExportFilter(junit.getId(), LocalDate.of(2020, 1, 1), LocalDate.of(2021, 12, 31)), exported::add);
+
+        // assert
+        Assertions.assertThat(exported).extracting(EmployeeWithIdDTO::email).containsExactly("jane.doe@acme.org");
+    }
+
+    private static Employee employee(String email, LocalDate hireDate, Company company) {
+        return new EmployeeBuilder()
+                .withEmail(email)
+                .withFirstName("First")
+                .withLastName("Last")
+                .withHireDate(hireDate)
+                .withGender(Gender.MALE)
+                .withCompany(company)
+                .build();
+    }
+}
@@ -16,23 +16,37 @@
 package be.atbash.demo.spring.rest.service;
 
 import be.atbash.demo.spring.rest.builder.CompanyBuilder;
-import be.atbash.demo.spring.rest.builder.EmployeeBuilder;
+import be.atbash.demo.spring.rest.dto.CompanyDTO;
+import be.atbash.demo.spring.rest.dto.EmployeePageDTO;
 import be.atbash.demo.spring.rest.dto.EmployeeWithIdDTO;
+import be.atbash.demo.spring.rest.dto.EmployeeWithoutIdDTO;
+import be.atbash.demo.spring.rest.exception.BusinessConflictException;
+import be.atbash.demo.spring.rest.exception.BusinessValidationException;
+import be.atbash.demo.spring.rest.exception.DomainErrorCodes;
 import be.atbash.demo.spring.rest.helper.MapperUtil;
 import be.atbash.demo.spring.rest.mapper.EmployeeMapperService;
 import be.atbash.demo.spring.rest.model.Company;
 import be.atbash.demo.spring.rest.model.Employee;
+import be.atbash.demo.spring.rest.model.Gender;
 import be.atbash.demo.spring.rest.repository.EmployeeRepository;
 import be.atbash.demo.spring.rest.validation.CompanyValidationService;
+import be.atbash.demo.spring.rest.validation.EmployeeRowValidation;
+import be.atbash.demo.spring.rest.validation.EmployeeValidationService;
+import org.hibernate.exception.ConstraintViolationException;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 
+import java.sql.SQLException;
 import java.util.List;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,6 +56,10 @@ class EmployeeServiceTest {
     private EmployeeRepository employeeRepositoryMock;
     @Mock
     private CompanyValidationService companyValidationServiceMock;
+    @Mock
+    private EmployeeValidationService employeeValidationServiceMock;
+    @Mock
+    private ApplicationEventPublisher eventPublisherMock;
     @Spy
     private final EmployeeMapperService employeeMapperServiceSpy = MapperUtil.getMapper(EmployeeMapperService.class);
     // The real mapper functionality so that we don't need to mock it in the test
@@ -59,17 +77,10 @@ class EmployeeServiceTest {
                 .build();
         Mockito.when(companyValidationServiceMock.checkValidName(companyName)).thenReturn(company);
 
-        Employee employee1 = new EmployeeBuilder()
-                .withEmail("john.doe@acme.org")
-                .withCompany(company)
-                .build();
+        EmployeeWithIdDTO employee1 = employeeDTO(11L, "john.doe@acme.org", companyName);
+        EmployeeWithIdDTO employee2 = employeeDTO(12L, "jane.doe@acme.org", companyName);
 
-        Employee employee2 = new EmployeeBuilder()
-                .withEmail("jane.doe@acme.org")
-                .withCompany(company)
-                .build();
-
-        Mockito.when(employeeRepositoryMock.findAllByCompanyId(company.getId())).thenReturn(List.of(employee1, employee2));
+        Mockito.when(employeeRepositoryMock.findAllDtoByCompanyId(company.getId())).thenReturn(List.of(employee1, employee2));
 
         // act
         List<EmployeeWithIdDTO> employees = employeeService.findAllEmployeesForCompany(companyName);
@@ -80,6 +91,109 @@ class EmployeeServiceTest {
         Assertions.assertThat(employees).extracting(EmployeeWithIdDTO::email).containsExactly("john.doe@acme.org", "jane.doe@acme.org");
 
         Mockito.verify(companyValidationServiceMock).checkValidName(companyName);
-        Mockito.verify(employeeMapperServiceSpy, Mockito.times(2)).asDtoWithId(Mockito.any());  // Check if we use the mapper and not some custom logic
+        Mockito.verifyNoInteractions(employeeMapperServiceSpy);  // The query selects directly into the DTO, no entities to map.
+    }
+
+    @Test
+    void findEmployeesForCompany() {
+        // arrange
+        String companyName = "Atbash";
+        Company company = new CompanyBuilder()
+                .withId(1L)
+                .withName(companyName)
+                .build();
+        Mockito.when(companyValidationServiceMock.checkValidName(companyName)).thenReturn(company);
+
+        EmployeeWithIdDTO employee1 = employeeDTO(11L, "john.doe@acme.org", companyName);
+        EmployeeWithIdDTO employee2 = employeeDTO(12L, "jane.doe@acme.org", companyName);
+
+        // page size of 1, so the service asks for 2 records to detect the next page.
+        Mockito.when(employeeRepositoryMock.findPageDtoByCompanyId(company.getId(), 0L, Limit.of(2))).thenReturn(List.of(employee1, employee2));
+
+        // act
+        EmployeePageDTO page = employeeService.findEmployeesForCompany(companyName, null, 1);
+
+        // assert
+        Assertions.assertThat(page.employees()).extracting(EmployeeWithIdDTO::email).containsExactly("john.doe@acme.org");
+        Assertions.assertThat(page.next()).isNotNull();
+        Assertions.assertThat(CursorCodec.decode(page.next())).isEqualTo(11L);
+    }
+
+    @Test
+    void findEmployeesForCompany_lastPage() {
+        // arrange
+        String companyName = "Atbash";
+        Company company = new CompanyBuilder()
+                .withId(1L)
+                .withName(companyName)
+                .build();
+        Mockito.when(companyValidationServiceMock.checkValidName(companyName)).thenReturn(company);
+
+        EmployeeWithIdDTO employee = employeeDTO(12L, "jane.doe@acme.org", companyName);
+
+        Mockito.when(employeeRepositoryMock.findPageDtoByCompanyId(company.getId(), 11L, Limit.of(11))).thenReturn(List.of(employee));
+
+        // act
+        EmployeePageDTO page = employeeService.findEmployeesForCompany(companyName, CursorCodec.encode(11L), 10);
+
+        // assert
+        Assertions.assertThat(page.employees()).hasSize(1);
+        Assertions.assertThat(page.next()).isNull();
+    }
+
+    @Test
+    void create_emailAlreadyInUse() {
+        // arrange
+        EmployeeWithoutIdDTO dto = new EmployeeWithoutIdDTO("john.doe@acme.org", "John", "Doe", null, Gender.MALE, new CompanyDTO("Atbash"));
+        Company company = new CompanyBuilder().withId(1L).withName("Atbash").build();
+        Mockito.when(employeeValidationServiceMock.validateCreate(dto)).thenReturn(company);
+        Mockito.when(employeeRepositoryMock.saveAndFlush(ArgumentMatchers.any(Employee.class)))
+                .thenThrow(integrityViolation("\"PUBLIC.UK_EMPLOYEE_EMAIL_INDEX_4 ON PUBLIC.EMPLOYEE(EMAIL NULLS FIRST)"));
+
+        // act & assert
+        Assertions.assertThatThrownBy(() -> employeeService.create(dto))
+                .isInstanceOf(BusinessValidationException.class)
+                .extracting("code").isEqualTo(DomainErrorCodes.EMPLOYEE_EMAIL_ALREADY_IN_USE);
+    }
+
+    @Test
+    void create_otherIntegrityViolation() {
+        // arrange
+        EmployeeWithoutIdDTO dto = new EmployeeWithoutIdDTO("john.doe@acme.org", "John", "Doe", null, Gender.MALE, new CompanyDTO("Atbash"));
+        Company company = new CompanyBuilder().withId(1L).withName("Atbash").build();
+        Mockito.when(employeeValidationServiceMock.validateCreate(dto)).thenReturn(company);
+        // Company deleted in the meantime
+        Mockito.when(employeeRepositoryMock.saveAndFlush(ArgumentMatchers.any(Employee.class)))
+                .thenThrow(integrityViolation("FK_EMPLOYEE_COMPANY"));
+
+        // act & assert
+        Assertions.assertThatThrownBy(() -> employeeService.create(dto))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void createBatch_emailTakenConcurrently() {
+        // arrange
+        EmployeeWithoutIdDTO dto = new EmployeeWithoutIdDTO("john.doe@acme.org", "John", "Doe", null, Gender.MALE, new CompanyDTO("Atbash"));
+        Company company = new CompanyBuilder().withId(1L).withName("Atbash").build();
+        Mockito.when(employeeValidationServiceMock.validateCreateBatch(List.of(dto))).thenReturn(List.of(EmployeeRowValidation.valid(company)));
+        // Validation passed, but another request inserted the email before the batch is flushed.
+        Mockito.when(employeeRepositoryMock.save(ArgumentMatchers.any(Employee.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        Mockito.doThrow(integrityViolation("\"PUBLIC.UK_EMPLOYEE_EMAIL_INDEX_4 ON PUBLIC.EMPLOYEE(EMAIL NULLS FIRST)"))
+                .when(employeeRepositoryMock).flush();
+
+        // act & assert
+        Assertions.assertThatThrownBy(() -> employeeService.createBatch(List.of(dto)))
+                .isInstanceOf(BusinessConflictException.class)
+                .extracting("code").isEqualTo(DomainErrorCodes.EMPLOYEE_BATCH_EMAIL_CONFLICT);
+    }
+
+    private static DataIntegrityViolationException integrityViolation(String constraintName) {
+        ConstraintViolationException cause = new ConstraintViolationException("could not execute statement", new SQLException("Integrity constraint violation"), constraintName);
+        return new DataIntegrityViolationException("could not execute statement", cause);
+    }
+
+    private static EmployeeWithIdDTO employeeDTO(Long id, String email, String companyName) {
+        return new EmployeeWithIdDTO(id, email, "First", "Last", null, null, companyName);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.stats;
+
+import be.atbash.demo.spring.rest.dto.CompanyDTO;
+import be.atbash.demo.spring.rest.dto.CompanyStatsDTO;
+import be.atbash.demo.spring.rest.dto.EmployeeWithIdDTO;
+import be.atbash.demo.spring.rest.event.CompanyDeletedEvent;
+import be.atbash.demo.spring.rest.event.EmployeeCreatedEvent;
+import be.atbash.demo.spring.rest.model.Gender;
+import be.atbash.demo.spring.rest.repository.EmployeeRepository;
+import be.atbash.demo.spring.rest.repository.EmployeeStatsRow;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@ExtendWith(MockitoExtension.class)
+class CompanyStatsAggregatorTest {
+
+    @Mock
+    private EmployeeRepository employeeRepositoryMock;
+    @Mock
+    private PlatformTransactionManager transactionManagerMock;
+
+    private CompanyStatsAggregator companyStatsAggregator;
+
+    @BeforeEach
+    void setUp() {
+        companyStatsAggregator = new CompanyStatsAggregator(employeeRepositoryMock, transactionManagerMock);
+    }
+
+    @Test
+    void getStats() {
+        // arrange
+        Mockito.when(employeeRepositoryMock.countPerCompanyGenderAndHireYear()).thenReturn(List.of(
+                new EmployeeStatsRow(1L, Gender.MALE, 2020, 3),
+                new EmployeeStatsRow(1L, Gender.FEMALE, 2020, 2),
+                new EmployeeStatsRow(1L, Gender.FEMALE, 2018, 1),
+                new EmployeeStatsRow(1L, null, null, 1),
+                new EmployeeStatsRow(2L, Gender.MALE, 2018, 1)));
+        companyStatsAggregator.rebuild();
+
+        // act
+        CompanyStatsDTO stats = companyStatsAggregator.getStats(1L, "JUnit");
+
+        // assert
+        Assertions.assertThat(stats.name()).isEqualTo("JUnit");
+        Assertions.assertThat(stats.headcount()).isEqualTo(7);
+        Assertions.assertThat(stats.genders()).containsExactly(Map.entry(Gender.MALE, 3L), Map.entry(Gender.FEMALE, 3L));
+        Assertions.assertThat(stats.withoutGender()).isEqualTo(1);
+        Assertions.assertThat(stats.hiresPerYear()).containsExactly(Map.entry(2018, 1L), Map.entry(2020, 5L));
+        Assertions.assertThat(stats.withoutHireDate()).isEqualTo(1);
+    }
+
+    @Test
+    void getStats_noEmployees() {
+        // arrange
+        companyStatsAggregator.rebuild();
+
+        // act
+        CompanyStatsDTO stats = companyStatsAggregator.getStats(1L, "JUnit");
+
+        // assert
+        Assertions.assertThat(stats.headcount()).isZero();
+        Assertions.assertThat(stats.genders()).isEmpty();
+        Assertions.assertThat(stats.hiresPerYear()).isEmpty();
+    }
+
+    @Test
+    void onChange() {
+        // arrange
+        Mockito.when(employeeRepositoryMock.countPerCompanyGenderAndHireYear()).thenReturn(List.of(
+                new EmployeeStatsRow(1L, Gender.MALE, 2020, 1),
+                new EmployeeStatsRow(2L, Gender.MALE, 2018, 1)));
+        companyStatsAggregator.rebuild();
+
+        // act
+        companyStatsAggregator.onEmployeeCreated(new EmployeeCreatedEvent(1L, employee(Gender.FEMALE, LocalDate.of(2021, 3, 1))));
+        companyStatsAggregator.onCompanyDeleted(new CompanyDeletedEvent(2L, "Atbash"));
+
+        // assert
+        CompanyStatsDTO stats = companyStatsAggregator.getStats(1L, "JUnit");
+        Assertions.assertThat(stats.headcount()).isEqualTo(2);
+        Assertions.assertThat(stats.genders()).containsExactly(Map.entry(Gender.MALE, 1L), Map.entry(Gender.FEMALE, 1L));
+        Assertions.assertThat(stats.hiresPerYear()).containsExactly(Map.entry(2020, 1L), Map.entry(2021, 1L));
+        Assertions.assertThat(companyStatsAggregator.getStats(2L, "Atbash").headcount()).isZero();
+    }
+
+    @Test
+    void onChange_beforeRebuild() {
+        // arrange
+        Mockito.when(employeeRepositoryMock.countPerCompanyGenderAndHireYear()).thenReturn(List.of(
+                new EmployeeStatsRow(1L, Gender.MALE, 2020, 1)));
+
+        // act
+        companyStatsAggregator.onEmployeeCreated(new EmployeeCreatedEvent(1L, employee(null, null)));
+        companyStatsAggregator.rebuild();
+
+        // assert
+        CompanyStatsDTO stats = companyStatsAggregator.getStats(1L, "JUnit");
+        Assertions.assertThat(stats.headcount()).isEqualTo(2);
+        Assertions.assertThat(stats.withoutGender()).isEqualTo(1);
+        Assertions.assertThat(stats.withoutHireDate()).isEqualTo(1);
+    }
+
+    @Test
+    void onChange_beforeRebuildAlreadyCounted() {
+        // arrange
+        // Employee 10 is committed before the query and thus already counted.
+        Mockito.when(employeeRepositoryMock.countPerCompanyGenderAndHireYear()).thenReturn(List.of(
+                new EmployeeStatsRow(1L, Gender.MALE, 2020, 1),
+                new EmployeeStatsRow(1L, null, null, 1)));
+        Mockito.when(employeeRepositoryMock.findExistingIds(List.of(10L))).thenReturn(List.of(10L));
+
+        // act
+        companyStatsAggregator.onEmployeeCreated(new EmployeeCreatedEvent(1L, employee(null, null)));
+        companyStatsAggregator.rebuild();
+
+        // assert
+        CompanyStatsDTO stats = companyStatsAggregator.getStats(1L, "JUnit");
+        Assertions.assertThat(stats.headcount()).isEqualTo(2);
+        Assertions.assertThat(stats.withoutGender()).isEqualTo(1);
+    }
+
+    @Test
+    void onChange_beforeRebuildCommittedAfterQuery() {
+        // arrange
+        // Employee 10 is committed after the query although employee 11 is counted, ids are not committed in order.
+        Mockito.when(employeeRepositoryMock.countPerCompanyGenderAndHireYear()).thenReturn(List.of(
+                new EmployeeStatsRow(1L, Gender.MALE, 2020, 1)));
+        Mockito.when(employeeRepositoryMock.findExistingIds(List.of(10L))).thenReturn(List.of());
+
+        // act
+        companyStatsAggregator.onEmployeeCreated(new EmployeeCreatedEvent(1L, employee(null, null)));
+        companyStatsAggregator.rebuild();
+
+        // assert
+        CompanyStatsDTO stats = companyStatsAggregator.getStats(1L, "JUnit");
+        Assertions.assertThat(stats.headcount()).isEqualTo(2);
+        Assertions.assertThat(stats.withoutGender()).isEqualTo(1);
+    }
+
+    private static EmployeeWithIdDTO employee(Gender gender, LocalDate hireDate) {
+        return new EmployeeWithIdDTO(10L, "jane.doe@acme.org", "Jane", "Doe", hireDate, gender, new CompanyDTO("JUnit"));
+    }
+}
@@ -15,6 +15,7 @@
  */
 package be.atbash.demo.spring.rest.validation;
 
+import be.atbash.demo.spring.rest.cache.CompanyCache;
 import be.atbash.demo.spring.rest.dto.CompanyDTO;
 import be.atbash.demo.spring.rest.exception.BusinessValidationException;
 import be.atbash.demo.spring.rest.exception.DomainErrorCodes;
@@ -26,6 +27,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Optional;
@@ -35,6 +37,8 @@ class CompanyValidationServiceTest {
 
     @Mock
     private CompanyRepository companyRepositoryMock;
+    @Spy
+    private final CompanyCache companyCacheSpy = new CompanyCache(100);
 
     @InjectMocks
     private CompanyValidationService companyValidationService;
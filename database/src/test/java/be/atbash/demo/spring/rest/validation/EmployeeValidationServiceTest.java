@@ -0,0 +1,136 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.validation;
+
+import be.atbash.demo.spring.rest.builder.CompanyBuilder;
+import be.atbash.demo.spring.rest.dto.CompanyDTO;
+import be.atbash.demo.spring.rest.dto.EmployeeWithoutIdDTO;
+import be.atbash.demo.spring.rest.exception.BusinessValidationException;
+import be.atbash.demo.spring.rest.exception.DomainErrorCodes;
+import be.atbash.demo.spring.rest.index.EmployeeEmailFilter;
+import be.atbash.demo.spring.rest.model.Company;
+import be.atbash.demo.spring.rest.model.Employee;
+import be.atbash.demo.spring.rest.model.Gender;
+import be.atbash.demo.spring.rest.repository.CompanyRepository;
+import be.atbash.demo.spring.rest.repository.EmployeeRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@ExtendWith(MockitoExtension.class)
+class EmployeeValidationServiceTest {
+
+    @Mock
+    private EmployeeRepository employeeRepositoryMock;
+    @Mock
+    private CompanyRepository companyRepositoryMock;
+    @Mock
+    private CompanyValidationService companyValidationServiceMock;
+    @Mock
+    private EmployeeEmailFilter employeeEmailFilterMock;
+
+    @InjectMocks
+    private EmployeeValidationService employeeValidationService;
+
+    @Test
+    void validateCreateBatch() {
+        // arrange
+        Company atbash = new CompanyBuilder()
+                .withId(1L)
+                .withName("Atbash")
+                .build();
+
+        List<EmployeeWithoutIdDTO> dtos = List.of(
+                employee("john.doe@acme.org", "Atbash"),  // valid
+                employee("jane.doe@acme.org", "Atbash"),  // email exists in database
+                employee("john.doe@acme.org", "Atbash"),  // email used earlier in the batch
+                employee("info@acme.org", "Unknown"),  // company doesn't exist
+                new EmployeeWithoutIdDTO(null, "No", "Email", null, Gender.OTHER, new CompanyDTO("Atbash"))
+        );
+
+        Mockito.when(companyRepositoryMock.findAllByNames(Set.of("Atbash", "Unknown"))).thenReturn(List.of(atbash));
+        Mockito.when(employeeRepositoryMock.findExistingEmails(Mockito.anyCollection())).thenReturn(List.of("jane.doe@acme.org"));
+
+        // act
+        List<EmployeeRowValidation> result = employeeValidationService.validateCreateBatch(dtos);
+
+        // assert
+        Assertions.assertThat(result).extracting(EmployeeRowValidation::errorCode).containsExactly(
+                null,
+                DomainErrorCodes.EMPLOYEE_EMAIL_ALREADY_IN_USE,
+                DomainErrorCodes.EMPLOYEE_EMAIL_ALREADY_IN_USE,
+                DomainErrorCodes.COMPANY_NAME_NOT_FOUND,
+                DomainErrorCodes.EMPLOYEE_REQUIRED_FIELD_MISSING
+        );
+        Assertions.assertThat(result.get(0).company()).isSameAs(atbash);
+
+        // Set based, so only one query for all employees.
+        Mockito.verify(companyRepositoryMock).findAllByNames(Mockito.anyCollection());
+        Mockito.verify(employeeRepositoryMock).findExistingEmails(Mockito.anyCollection());
+        Mockito.verifyNoInteractions(companyValidationServiceMock);
+    }
+
+    @Test
+    void shouldFailWhenEmailAlreadyInUse_definitelyNotInUse() {
+        // arrange
+        Mockito.when(employeeEmailFilterMock.mightContain(1L, "john.doe@acme.org")).thenReturn(false);
+
+        // act
+        employeeValidationService.shouldFailWhenEmailAlreadyInUse("john.doe@acme.org", 1L);
+
+        // assert
+        Mockito.verifyNoInteractions(employeeRepositoryMock);
+    }
+
+    @Test
+    void shouldFailWhenEmailAlreadyInUse_falsePositive() {
+        // arrange
+        Mockito.when(employeeEmailFilterMock.mightContain(1L, "john.doe@acme.org")).thenReturn(true);
+        Mockito.when(employeeRepositoryMock.findByEmail("john.doe@acme.org", 1L)).thenReturn(Optional.empty());
+
+        // act
+        employeeValidationService.shouldFailWhenEmailAlreadyInUse("john.doe@acme.org", 1L);
+
+        // assert
+        Mockito.verify(employeeEmailFilterMock).reportFalsePositive();
+    }
+
+    @Test
+    void shouldFailWhenEmailAlreadyInUse_inUse() {
+        // arrange
+        Mockito.when(employeeEmailFilterMock.mightContain(1L, "john.doe@acme.org")).thenReturn(true);
+        Mockito.when(employeeRepositoryMock.findByEmail("john.doe@acme.org", 1L)).thenReturn(Optional.of(new Employee()));
+
+        // act
+        Assertions.assertThatThrownBy(() -> employeeValidationService.shouldFailWhenEmailAlreadyInUse("john.doe@acme.org", 1L))
+                .isInstanceOf(BusinessValidationException.class);
+
+        // assert
+        Mockito.verify(employeeEmailFilterMock, Mockito.never()).reportFalsePositive();
+    }
+
+    private static EmployeeWithoutIdDTO employee(String email, String companyName) {
+        return new EmployeeWithoutIdDTO(email, "First", "Last", null, Gender.OTHER, new CompanyDTO(companyName));
+    }
+}
@@ -18,12 +18,14 @@ package be.atbash.demo.spring.rest.web;
 import be.atbash.demo.spring.rest.helper.MvcResultChecker;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import net.ttddyy.dsproxy.QueryCountHolder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.util.ExceptionCollector;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
 import org.springframework.test.web.servlet.ResultMatcher;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
@@ -38,6 +40,16 @@ public abstract class AbstractEndpointTest {
     private MockMvc mockMvc;  // Is able to call the endpoint
     // See 'jwt' example for more details
 
+    // Number of SQL statements executed by the last request, requires 'app.sql.inspection.enabled=true'.
+    protected long statementCount() {
+        return QueryCountHolder.getGrandTotal().getTotal();
+    }
+
+    // Number of insert executions by the last request, a JDBC batch counts as one.
+    protected long insertStatementCount() {
+        return QueryCountHolder.getGrandTotal().getInsert();
+    }
+
     protected <T> T performGet(String url, Class<T> responseClass, ResultMatcher... matchers) throws Exception {
         MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
                 .get(url)
@@ -73,12 +85,16 @@ public abstract class AbstractEndpointTest {
     }
 
     protected <T> T performPost(String url, Object body, Class<T> responseClass, ResultMatcher... matchers) throws Exception {
+        return performPost(url, body, new HttpHeaders(), responseClass, matchers);
+    }
+
+    protected <T> T performPost(String url, Object body, HttpHeaders headers, Class<T> responseClass, ResultMatcher... matchers) throws Exception {
         String content = asRequestBody(body); // Convert the body to a String (Json) that is POSTed.
 
         MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
                 .post(url)
                 .contentType(MediaType.APPLICATION_JSON)
-                .headers(new HttpHeaders())
+                .headers(headers)
                 .content(content);
         MvcResult mvcResult = executeRequest(requestBuilder, matchers);
 
@@ -135,7 +151,7 @@ public abstract class AbstractEndpointTest {
 
     }
 
-    private MvcResult executeRequest(MockHttpServletRequestBuilder requestBuilder, ResultMatcher[] matchers) throws Exception {
+    protected MvcResult executeRequest(RequestBuilder requestBuilder, ResultMatcher[] matchers) throws Exception {
         // See 'test-data' example for a more advanced version of this method.
         return mockMvc.perform(requestBuilder)
                 .andExpectAll(matchers)
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.web;
+
+import be.atbash.demo.spring.rest.dto.CompanyDTO;
+import be.atbash.demo.spring.rest.dto.CompanyDTOWithId;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+// Not @Transactional, the requests commit so that the change log is written. Own database as the data remains.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:change-it",
+        "app.changes.settle-time=0s"
+})
+@AutoConfigureMockMvc
+class ChangeControllerIT extends AbstractEndpointTest {
+
+    @Test
+    void getChanges_cbor() throws Exception {
+        // arrange
+        CompanyDTOWithId company = performPost("/company", new CompanyDTO("Cbor"), CompanyDTOWithId.class, MockMvcResultMatchers.status().isCreated());
+
+        // act
+        JsonNode changes = getChanges(MediaType.APPLICATION_CBOR, new CBORMapper());
+
+        // assert
+        assertCompanyCreated(changes, company);
+    }
+
+    @Test
+    void getChanges_smile() throws Exception {
+        // arrange
+        CompanyDTOWithId company = performPost("/company", new CompanyDTO("Smile"), CompanyDTOWithId.class, MockMvcResultMatchers.status().isCreated());
+
+        // act
+        JsonNode changes = getChanges(MediaType.valueOf("application/x-jackson-smile"), new SmileMapper());
+
+        // assert
+        assertCompanyCreated(changes, company);
+    }
+
+    private JsonNode getChanges(MediaType mediaType, ObjectMapper mapper) throws Exception {
+        MvcResult result = executeRequest(MockMvcRequestBuilders.get("/changes?limit=1000").accept(mediaType)
+                , new ResultMatcher[]{MockMvcResultMatchers.status().isOk(), MockMvcResultMatchers.content().contentType(mediaType)});
+        return mapper.readTree(result.getResponse().getContentAsByteArray());
+    }
+
+    private static void assertCompanyCreated(JsonNode changes, CompanyDTOWithId company) {
+        Assertions.assertThat(changes.get("changes"))
+                .filteredOn(change -> change.get("id").asLong() == company.id())
+                .singleElement()
+                .satisfies(change -> {
+                    Assertions.assertThat(change.get("type").asText()).isEqualTo("CREATED");
+                    Assertions.assertThat(change.get("data").get("name").asText()).isEqualTo(company.name());
+                });
+    }
+}
@@ -16,11 +16,19 @@
 package be.atbash.demo.spring.rest.web;
 
 import be.atbash.demo.spring.rest.builder.EmployeeBuilder;
+import be.atbash.demo.spring.rest.concurrent.AdaptiveConcurrencyLimiter;
 import be.atbash.demo.spring.rest.dto.CompanyDTO;
 import be.atbash.demo.spring.rest.dto.CompanyDTOWithId;
+import be.atbash.demo.spring.rest.dto.CompanyMultiGetDTO;
+import be.atbash.demo.spring.rest.dto.CompanyStatsDTO;
+import be.atbash.demo.spring.rest.dto.EmployeeColumnsDTO;
+import be.atbash.demo.spring.rest.dto.EmployeePageDTO;
+import be.atbash.demo.spring.rest.dto.EmployeeWithIdDTO;
 import be.atbash.demo.spring.rest.model.Company;
 import be.atbash.demo.spring.rest.model.Employee;
 import be.atbash.demo.spring.rest.model.Gender;
+import be.atbash.demo.spring.rest.stats.CompanyStatsAggregator;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import jakarta.persistence.EntityManager;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -28,15 +36,21 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-@SpringBootTest // Start application in 'testing mode'
+@SpringBootTest(properties = "app.concurrency-limit.enabled=true") // Start application in 'testing mode'
 @AutoConfigureMockMvc // have MockMvc available for calling endpoints.
 @Transactional // Needed because we use the EntityManager
 class CompanyControllerIT extends AbstractEndpointTest {
@@ -44,6 +58,12 @@ class CompanyControllerIT extends AbstractEndpointTest {
     @Autowired
     private EntityManager entityManager;  // Can't use TestEntityManager here since we don't use @DataJpaTest
 
+    @Autowired
+    private CompanyStatsAggregator companyStatsAggregator;
+
+    @Autowired
+    private ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+
     @BeforeEach
     void setUp() {
         prepareCompanyData();
@@ -59,6 +79,41 @@ class CompanyControllerIT extends AbstractEndpointTest {
         Assertions.assertThat(companyDTOWithId).isNotNull();
         //Assertions.assertThat(companyDTOWithId.id()).isEqualTo(2L);  Since @BeforeEach is executed multiple time (once for each test), we can't known the id exactly
         Assertions.assertThat(companyDTOWithId.name()).isEqualTo("Atbash");
+        Assertions.assertThat(statementCount()).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    void getCompanyByName_cbor() throws Exception {
+        // arrange
+        CBORMapper cborMapper = new CBORMapper();
+
+        // act
+        MvcResult json = executeRequest(MockMvcRequestBuilders.get("/company/Atbash"), new ResultMatcher[]{MockMvcResultMatchers.status().isOk()});
+        MvcResult cbor = executeRequest(MockMvcRequestBuilders.get("/company/Atbash").accept(MediaType.APPLICATION_CBOR)
+                , new ResultMatcher[]{MockMvcResultMatchers.status().isOk(), MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_CBOR)});
+
+        // assert
+        CompanyDTOWithId company = cborMapper.readValue(cbor.getResponse().getContentAsByteArray(), CompanyDTOWithId.class);
+        Assertions.assertThat(company.name()).isEqualTo("Atbash");
+        Assertions.assertThat(cbor.getResponse().getContentLength()).isLessThan(json.getResponse().getContentLength());
+        Assertions.assertThat(cbor.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(json.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void createCompany_cbor() throws Exception {
+        // arrange
+        CBORMapper cborMapper = new CBORMapper();
+
+        // act
+        MvcResult result = executeRequest(MockMvcRequestBuilders.post("/company")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(new CompanyDTO("Binary")))
+                , new ResultMatcher[]{MockMvcResultMatchers.status().isCreated()});
+
+        // assert
+        CompanyDTOWithId company = cborMapper.readValue(result.getResponse().getContentAsByteArray(), CompanyDTOWithId.class);
+        Assertions.assertThat(company.name()).isEqualTo("Binary");
     }
 
     @Test
@@ -70,6 +125,145 @@ class CompanyControllerIT extends AbstractEndpointTest {
         // assert
     }
 
+    @Test
+    void getCompanyByName_concurrencyLimitReached() throws Exception {
+        // arrange
+        performGet("/company/Atbash", CompanyDTOWithId.class, MockMvcResultMatchers.status().isOk());  // creates the limiter of the group
+        AdaptiveConcurrencyLimiter limiter = concurrencyLimitInterceptor.getLimiter("company");
+        int permits = 0;
+        while (limiter.tryAcquire()) {
+            permits++;
+        }
+
+        try {
+            // act
+            performGet("/company/Atbash", Void.class, MockMvcResultMatchers.status().isServiceUnavailable()
+                    , MockMvcResultMatchers.header().string(HttpHeaders.RETRY_AFTER, "1")
+                    , MockMvcResultMatchers.jsonPath("$.group").value("company"));
+        } finally {
+            for (int i = 0; i < permits; i++) {
+                limiter.releaseWithoutSample();
+            }
+        }
+    }
+
+    @Test
+    void getCompaniesByNames() throws Exception {
+
+        // act
+        CompanyMultiGetDTO result = performGet("/company?names=Atbash,something,JUnit", CompanyMultiGetDTO.class, MockMvcResultMatchers.status().isOk());
+
+        // assert
+        Assertions.assertThat(result.companies()).extracting(CompanyDTOWithId::name).containsExactly("Atbash", "JUnit");
+        Assertions.assertThat(result.missing()).containsExactly("something");
+    }
+
+    @Test
+    void getEmployeesByCompanyByName() throws Exception {
+
+        // act
+        EmployeeWithIdDTO[] employees = performGet("/company/JUnit/employees", EmployeeWithIdDTO[].class, MockMvcResultMatchers.status().isOk());
+
+        // assert
+        Assertions.assertThat(employees).extracting(EmployeeWithIdDTO::email).containsExactly("john.doe@acme.org", "jane.doe@acme.org");
+        // The company and the employees, a query per employee (N+1) would fail here.
+        Assertions.assertThat(statementCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void getEmployeeFieldsByCompanyByName() throws Exception {
+
+        // act
+        Map[] employees = performGet("/company/JUnit/employees?fields=email", Map[].class, MockMvcResultMatchers.status().isOk());
+
+        // assert
+        Assertions.assertThat(employees).containsExactly(Map.of("email", "john.doe@acme.org"), Map.of("email", "jane.doe@acme.org"));
+        Assertions.assertThat(statementCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void getEmployeeColumnsByCompanyByName() throws Exception {
+
+        // act
+        EmployeeColumnsDTO columns = performGet("/company/JUnit/employees?fields=email,company,gender&layout=columnar", EmployeeColumnsDTO.class, MockMvcResultMatchers.status().isOk());
+
+        // assert
+        Assertions.assertThat(columns.company()).isEqualTo(new CompanyDTO("JUnit"));
+        Assertions.assertThat(columns.count()).isEqualTo(2);
+        Assertions.assertThat(columns.columns()).containsOnlyKeys("email", "gender");
+        Assertions.assertThat(columns.columns().get("email")).containsExactly("john.doe@acme.org", "jane.doe@acme.org");
+        Assertions.assertThat(columns.columns().get("gender")).containsExactly("MALE", "FEMALE");
+    }
+
+    @Test
+    void getEmployeeColumnsByCompanyByName_allFields() throws Exception {
+
+        // act
+        EmployeeColumnsDTO columns = performGet("/company/JUnit/employees?layout=columnar", EmployeeColumnsDTO.class, MockMvcResultMatchers.status().isOk());
+
+        // assert
+        Assertions.assertThat(columns.company()).isEqualTo(new CompanyDTO("JUnit"));
+        Assertions.assertThat(columns.count()).isEqualTo(2);
+        Assertions.assertThat(columns.columns()).containsOnlyKeys("id", "email", "firstName", "lastName", "hireDate", "gender");
+        Assertions.assertThat(columns.columns().get("email")).containsExactly("john.doe@acme.org", "jane.doe@acme.org");
+    }
+
+    @Test
+    void getEmployeeColumnsByCompanyByName_unknownLayout() throws Exception {
+
+        // act
+        performGet("/company/JUnit/employees?fields=email&layout=rows", Void.class, MockMvcResultMatchers.status().isBadRequest());
+        performGet("/company/JUnit/employees?layout=Columnar", Void.class, MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    void getEmployeeFieldsByCompanyByName_unknownField() throws Exception {
+
+        // act
+        performGet("/company/JUnit/employees?fields=id,salary", Void.class, MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    void getStatsByCompanyByName() throws Exception {
+        // arrange
+        // The test data is persisted directly, not through the services, so no events are published.
+        companyStatsAggregator.rebuild();
+
+        // act
+        CompanyStatsDTO stats = performGet("/company/JUnit/stats", CompanyStatsDTO.class, MockMvcResultMatchers.status().isOk());
+
+        // assert
+        Assertions.assertThat(stats.headcount()).isEqualTo(2);
+        Assertions.assertThat(stats.genders()).containsOnly(Map.entry(Gender.MALE, 1L), Map.entry(Gender.FEMALE, 1L));
+        Assertions.assertThat(stats.hiresPerYear()).containsOnly(Map.entry(2020, 2L));
+        // Only the company, the employees are not read.
+        Assertions.assertThat(statementCount()).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    void getEmployeePageByCompanyByName() throws Exception {
+
+        // act
+        EmployeePageDTO firstPage = performGet("/company/JUnit/employees/page?size=1", EmployeePageDTO.class, MockMvcResultMatchers.status().isOk());
+        EmployeePageDTO secondPage = performGet("/company/JUnit/employees/page?size=1&cursor=" + firstPage.next(), EmployeePageDTO.class, MockMvcResultMatchers.status().isOk());
+
+        // assert
+        Assertions.assertThat(firstPage.employees()).extracting(EmployeeWithIdDTO::email).containsExactly("john.doe@acme.org");
+        Assertions.assertThat(secondPage.employees()).extracting(EmployeeWithIdDTO::email).containsExactly("jane.doe@acme.org");
+        Assertions.assertThat(secondPage.next()).isNull();
+        // The company and the page, independent of the number of employees (no N+1 for the company of the employee).
+        Assertions.assertThat(statementCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void getEmployeePageByCompanyByName_invalidCursor() throws Exception {
+
+        // act
+        performGet("/company/JUnit/employees/page?cursor=garbage", EmployeePageDTO.class, MockMvcResultMatchers.status().isBadRequest());
+
+        // assert
+    }
+
     @Test
     void createCompany() throws Exception {
 
@@ -93,6 +287,39 @@ class CompanyControllerIT extends AbstractEndpointTest {
 
     }
 
+    @Test
+    void createCompany_idempotencyKey() throws Exception {
+        // arrange
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(IdempotencyFilter.IDEMPOTENCY_KEY, "createCompany_idempotencyKey");
+        CompanyDTOWithId created = performPost("/company", new CompanyDTO("Idempotent"), headers, CompanyDTOWithId.class, MockMvcResultMatchers.status().isCreated());
+
+        // act
+        CompanyDTOWithId replayed = performPost("/company", new CompanyDTO("Idempotent"), headers, CompanyDTOWithId.class
+                , MockMvcResultMatchers.status().isCreated()
+                , MockMvcResultMatchers.header().string(IdempotencyFilter.IDEMPOTENT_REPLAYED, "true")
+                , MockMvcResultMatchers.header().string(HttpHeaders.LOCATION, "/company/" + created.id()));
+
+        // assert
+        Assertions.assertThat(replayed).isEqualTo(created);
+        // Not validated again, and not inserted a second time.
+        Assertions.assertThat(statementCount()).isZero();
+        performPost("/company", new CompanyDTO("Other"), headers, Void.class, MockMvcResultMatchers.status().isUnprocessableEntity());
+    }
+
+    @Test
+    void createCompany_idempotencyKeyOtherFormat() throws Exception {
+        // arrange
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(IdempotencyFilter.IDEMPOTENCY_KEY, "createCompany_idempotencyKeyOtherFormat");
+        performPost("/company", new CompanyDTO("IdempotentFormat"), headers, CompanyDTOWithId.class, MockMvcResultMatchers.status().isCreated());
+
+        // act
+        // Same key and body, but the response in another format can't be replayed.
+        headers.setAccept(List.of(MediaType.valueOf("application/cbor")));
+        performPost("/company", new CompanyDTO("IdempotentFormat"), headers, Void.class, MockMvcResultMatchers.status().isUnprocessableEntity());
+    }
+
     @Test
     void deleteCompany() throws Exception {
 
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.web;
+
+import be.atbash.demo.spring.rest.exception.ConcurrencyLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.AsyncContext;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+class ConcurrencyLimitInterceptorTest {
+
+    @Test
+    void preHandle_limitReached() throws NoSuchMethodException {
+        // arrange
+        ConcurrencyLimitInterceptor interceptor = new ConcurrencyLimitInterceptor(1, 1, 10);
+        HandlerMethod handler = companyHandler();
+        interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), handler);
+
+        // act & assert
+        Assertions.assertThatThrownBy(() -> interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), handler))
+                .isInstanceOf(ConcurrencyLimitExceededException.class)
+                .extracting("group").isEqualTo("company");
+    }
+
+    @Test
+    void afterCompletion_releasesPermit() throws NoSuchMethodException {
+        // arrange
+        ConcurrencyLimitInterceptor interceptor = new ConcurrencyLimitInterceptor(1, 1, 10);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        interceptor.bindTo(registry);
+        HandlerMethod handler = companyHandler();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        interceptor.preHandle(request, new MockHttpServletResponse(), handler);
+
+        // act
+        interceptor.afterCompletion(request, new MockHttpServletResponse(), handler, null);
+        // A second call (async dispatch) does not release again
+        interceptor.afterCompletion(request, new MockHttpServletResponse(), handler, null);
+
+        // assert
+        Assertions.assertThat(interceptor.getLimiter("company").getInFlight()).isZero();
+        Assertions.assertThat(registry.get("concurrency.inflight").tag("group", "company").gauge().value()).isZero();
+        Assertions.assertThat(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), handler)).isTrue();
+    }
+
+    @Test
+    void afterConcurrentHandlingStarted_keepsPermitUntilAsyncEnds() throws NoSuchMethodException {
+        // arrange
+        ConcurrencyLimitInterceptor interceptor = new ConcurrencyLimitInterceptor(1, 1, 10);
+        HandlerMethod handler = companyHandler();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAsyncSupported(true);
+        interceptor.preHandle(request, new MockHttpServletResponse(), handler);
+        AsyncContext asyncContext = request.startAsync();
+
+        // act
+        interceptor.afterConcurrentHandlingStarted(request, new MockHttpServletResponse(), handler);
+
+        // assert
+        Assertions.assertThat(interceptor.getLimiter("company").getInFlight()).isEqualTo(1);
+        Assertions.assertThatThrownBy(() -> interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), handler))
+                .isInstanceOf(ConcurrencyLimitExceededException.class);
+
+        asyncContext.complete();
+        // The async dispatch does not release again
+        interceptor.afterCompletion(request, new MockHttpServletResponse(), handler, null);
+        Assertions.assertThat(interceptor.getLimiter("company").getInFlight()).isZero();
+    }
+
+    @Test
+    void preHandle_initialLimitBelowMinimum() throws NoSuchMethodException {
+        // arrange
+        // Like a connection pool of 2 with the default minimum of 5.
+        ConcurrencyLimitInterceptor interceptor = new ConcurrencyLimitInterceptor(2, 5, 200);
+
+        // act
+        boolean result = interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), companyHandler());
+
+        // assert
+        Assertions.assertThat(result).isTrue();
+        Assertions.assertThat(interceptor.getLimiter("company").getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    void constructor_invalidLimits() {
+        // act & assert
+        Assertions.assertThatThrownBy(() -> new ConcurrencyLimitInterceptor(10, 20, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static HandlerMethod companyHandler() throws NoSuchMethodException {
+        return new HandlerMethod(new Object(), Object.class.getMethod("toString")) {
+            @Override
+            public Class<?> getBeanType() {
+                return CompanyController.class;
+            }
+        };
+    }
+}
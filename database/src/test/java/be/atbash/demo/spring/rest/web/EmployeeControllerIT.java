@@ -0,0 +1,126 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.web;
+
+import be.atbash.demo.spring.rest.dto.CompanyDTO;
+import be.atbash.demo.spring.rest.dto.CompanyDTOWithId;
+import be.atbash.demo.spring.rest.dto.EmployeeBatchResultDTO;
+import be.atbash.demo.spring.rest.dto.EmployeeWithIdDTO;
+import be.atbash.demo.spring.rest.dto.EmployeeWithoutIdDTO;
+import be.atbash.demo.spring.rest.model.Gender;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Not @Transactional, the requests commit so that the change log is written. Own database as the data remains.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:employee-it",
+        "app.changes.settle-time=0s",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=100",
+        "spring.jpa.properties.hibernate.order_inserts=true"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("pooled-ids")  // Ids known upfront, so that Hibernate can batch the inserts.
+class EmployeeControllerIT extends AbstractEndpointTest {
+
+    private static final MediaType APPLICATION_NDJSON = MediaType.valueOf("application/x-ndjson");
+
+    @Test
+    void createEmployees() throws Exception {
+        // arrange
+        Instant start = Instant.now();
+        performPost("/company", new CompanyDTO("Batch"), CompanyDTOWithId.class, MockMvcResultMatchers.status().isCreated());
+        String since = performGet("/changes?limit=1000", JsonNode.class, MockMvcResultMatchers.status().isOk()).get("next").asText();
+
+        List<EmployeeWithoutIdDTO> employees = new ArrayList<>();
+        for (int idx = 0; idx < 200; idx++) {
+            employees.add(new EmployeeWithoutIdDTO("employee" + idx + "@batch.org", "First", "Last", LocalDate.of(2020, 1, 1), Gender.OTHER, new CompanyDTO("Batch")));
+        }
+
+        // act
+        EmployeeBatchResultDTO result = performPost("/employee/batch", employees, EmployeeBatchResultDTO.class, MockMvcResultMatchers.status().isOk());
+
+        // assert
+        Assertions.assertThat(result.created()).isEqualTo(200);
+        // 2 batches of 100 employees and 2 batches of 100 changes.
+        Assertions.assertThat(insertStatementCount()).isEqualTo(4);
+
+        JsonNode changes = performGet("/changes?limit=1000&since=" + since, JsonNode.class, MockMvcResultMatchers.status().isOk());
+        Assertions.assertThat(changes.get("changes")).hasSize(200);
+        Instant changedAt = Instant.parse(changes.get("changes").get(0).get("changedAt").asText());
+        Assertions.assertThat(changedAt).isBetween(start, Instant.now().plus(Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void streamEmployeesByCompanyByName() throws Exception {
+        // arrange
+        // Here and not in CompanyControllerIT, the stream is written on another thread and only sees committed data.
+        performPost("/company", new CompanyDTO("Stream"), CompanyDTOWithId.class, MockMvcResultMatchers.status().isCreated());
+        List<EmployeeWithoutIdDTO> employees = List.of(
+                new EmployeeWithoutIdDTO("john.doe@stream.org", "John", "Doe", LocalDate.of(2020, 1, 1), Gender.MALE, new CompanyDTO("Stream")),
+                new EmployeeWithoutIdDTO("jane.doe@stream.org", "Jane", "Doe", null, Gender.FEMALE, new CompanyDTO("Stream")));
+        performPost("/employee/batch", employees, EmployeeBatchResultDTO.class, MockMvcResultMatchers.status().isOk());
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+        // act
+        MvcResult started = executeRequest(MockMvcRequestBuilders.get("/company/Stream/employees/stream").accept(APPLICATION_NDJSON)
+                , new ResultMatcher[]{MockMvcResultMatchers.request().asyncStarted()});
+        MvcResult result = executeRequest(MockMvcRequestBuilders.asyncDispatch(started)
+                , new ResultMatcher[]{MockMvcResultMatchers.status().isOk(), MockMvcResultMatchers.content().contentType(APPLICATION_NDJSON)});
+
+        // assert
+        List<String> lines = result.getResponse().getContentAsString(StandardCharsets.UTF_8).lines().toList();
+        List<EmployeeWithIdDTO> streamed = new ArrayList<>();
+        for (String line : lines) {
+            streamed.add(objectMapper.readValue(line, EmployeeWithIdDTO.class));
+        }
+        Assertions.assertThat(streamed)
+                .extracting(EmployeeWithIdDTO::email, EmployeeWithIdDTO::hireDate, EmployeeWithIdDTO::gender, EmployeeWithIdDTO::company)
+                .containsExactlyInAnyOrder(
+                        Assertions.tuple("john.doe@stream.org", LocalDate.of(2020, 1, 1), Gender.MALE, new CompanyDTO("Stream")),
+                        Assertions.tuple("jane.doe@stream.org", null, Gender.FEMALE, new CompanyDTO("Stream")));
+        Assertions.assertThat(streamed).extracting(EmployeeWithIdDTO::id).doesNotContainNull();
+    }
+
+    @Test
+    void streamEmployeesByCompanyByName_unknownCompany() throws Exception {
+
+        // act
+        MvcResult result = executeRequest(MockMvcRequestBuilders.get("/company/Unknown/employees/stream").accept(APPLICATION_NDJSON)
+                , new ResultMatcher[]{MockMvcResultMatchers.request().asyncNotStarted(), MockMvcResultMatchers.status().isBadRequest()});
+
+        // assert
+        // The company is checked before streaming starts, so the client receives a Problem Detail.
+        Assertions.assertThat(result.getResponse().getContentType()).isEqualTo(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        Assertions.assertThat(result.getResponse().getContentAsString()).contains("error.validation.company.name.notFound");
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.web;
+
+import be.atbash.demo.spring.rest.dto.EmployeeWithIdDTO;
+import be.atbash.demo.spring.rest.model.Gender;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.time.LocalDate;
+
+class EmployeeCsvWriterTest {
+
+    @Test
+    void accept() {
+        // arrange
+        StringWriter output = new StringWriter();
+        EmployeeCsvWriter csvWriter = new EmployeeCsvWriter(output);
+
+        // act
+        csvWriter.writeHeader();
+        csvWriter.accept(new EmployeeWithIdDTO(1L, "john.doe@acme.org", "John", "Doe", LocalDate.of(2020, 1, 15), Gender.MALE, "Acme"));
+        csvWriter.accept(new EmployeeWithIdDTO(2L, "jane.doe@acme.org", "Jane \"JD\"", "Doe, Jr", null, null, "Acme"));
+
+        // assert
+        Assertions.assertThat(output.toString()).isEqualTo("""
+                id,email,firstName,lastName,hireDate,gender,company\r
+                1,john.doe@acme.org,John,Doe,2020-01-15,MALE,Acme\r
+                2,jane.doe@acme.org,"Jane ""JD\"\"\","Doe, Jr",,,Acme\r
+                """);
+    }
+}
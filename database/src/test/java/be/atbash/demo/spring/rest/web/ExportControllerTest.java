@@ -0,0 +1,48 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.web;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ExportControllerTest {
+
+    @Test
+    void acceptsGzip() {
+        Assertions.assertThat(ExportController.acceptsGzip("gzip")).isTrue();
+        Assertions.assertThat(ExportController.acceptsGzip("gzip, deflate, br")).isTrue();
+        Assertions.assertThat(ExportController.acceptsGzip("GZIP;q=0.5")).isTrue();
+        Assertions.assertThat(ExportController.acceptsGzip("x-gzip")).isTrue();
+    }
+
+    @Test
+    void acceptsGzip_refused() {
+        Assertions.assertThat(ExportController.acceptsGzip(null)).isFalse();
+        Assertions.assertThat(ExportController.acceptsGzip("deflate")).isFalse();
+        Assertions.assertThat(ExportController.acceptsGzip("gzip;q=0")).isFalse();
+        Assertions.assertThat(ExportController.acceptsGzip("gzip; q=0.0, deflate")).isFalse();
+        Assertions.assertThat(ExportController.acceptsGzip("gzip;q=abc")).isFalse();
+    }
+
+    @Test
+    void acceptsGzip_wildcard() {
+        Assertions.assertThat(ExportController.acceptsGzip("*")).isTrue();
+        Assertions.assertThat(ExportController.acceptsGzip("identity, *;q=0.1")).isTrue();
+        Assertions.assertThat(ExportController.acceptsGzip("*;q=0")).isFalse();
+        // The explicit entry wins
+        Assertions.assertThat(ExportController.acceptsGzip("gzip;q=0, *")).isFalse();
+    }
+}
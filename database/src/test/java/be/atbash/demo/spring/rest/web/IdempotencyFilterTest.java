@@ -0,0 +1,110 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.web;
+
+import be.atbash.demo.spring.rest.cache.IdempotencyStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+
+class IdempotencyFilterTest {
+
+    @Test
+    void doFilter_nonBlockingRead() throws Exception {
+        // arrange
+        IdempotencyFilter filter = new IdempotencyFilter(new IdempotencyStore(Clock.systemUTC(), 10, Duration.ofHours(1)), new ObjectMapper(), 1024);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/company");
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY, "nonBlockingRead");
+        request.setContent("{\"name\":\"Atbash\"}".getBytes(StandardCharsets.UTF_8));
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+
+        // act
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            ServletInputStream inputStream = req.getInputStream();
+            inputStream.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    while (inputStream.isReady() && !inputStream.isFinished()) {
+                        received.write(inputStream.read());
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    received.write('!');
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    throw new AssertionError(t);
+                }
+            });
+        });
+
+        // assert
+        Assertions.assertThat(received.toString(StandardCharsets.UTF_8)).isEqualTo("{\"name\":\"Atbash\"}!");
+    }
+
+    @Test
+    void doFilter_bodyTooLarge() throws Exception {
+        // arrange
+        IdempotencyFilter filter = new IdempotencyFilter(new IdempotencyStore(Clock.systemUTC(), 10, Duration.ofHours(1)), new ObjectMapper(), 16);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/company");
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY, "bodyTooLarge");
+        request.setContent("{\"name\":\"Atbash Software\"}".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // act
+        filter.doFilter(request, response, (req, res) -> {
+            throw new AssertionError("Request should not be executed");
+        });
+
+        // assert
+        Assertions.assertThat(response.getStatus()).isEqualTo(413);
+    }
+
+    @Test
+    void doFilter_storeFullOfInFlightRequests() throws Exception {
+        // arrange
+        IdempotencyStore idempotencyStore = new IdempotencyStore(Clock.systemUTC(), 1, Duration.ofHours(1));
+        idempotencyStore.reserve("/company running", "fingerprint");
+        IdempotencyFilter filter = new IdempotencyFilter(idempotencyStore, new ObjectMapper(), 1024);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/company");
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY, "storeFull");
+        request.setContent("{\"name\":\"Atbash\"}".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // act
+        filter.doFilter(request, response, (req, res) -> {
+            throw new AssertionError("Request should not be executed");
+        });
+
+        // assert
+        Assertions.assertThat(response.getStatus()).isEqualTo(503);
+        Assertions.assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+        Assertions.assertThat(idempotencyStore.reserve("/company running", "fingerprint").outcome()).isEqualTo(IdempotencyStore.Outcome.IN_FLIGHT);
+    }
+}
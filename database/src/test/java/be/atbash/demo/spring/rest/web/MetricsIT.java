@@ -0,0 +1,55 @@
+/*
+ * Copyright 2024-2026 Rudy De Busscher (https://www.atbash.be)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package be.atbash.demo.spring.rest.web;
+
+import be.atbash.demo.spring.rest.dto.CompanyDTO;
+import be.atbash.demo.spring.rest.dto.CompanyDTOWithId;
+import be.atbash.demo.spring.rest.service.CompanyService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.transaction.annotation.Transactional;
+
+// The test application.properties replaces the main one, so we activate the metrics configuration here.
+@SpringBootTest(properties = {"spring.jpa.properties.hibernate.generate_statistics=true"
+        , "management.observations.annotations.enabled=true"})
+@AutoConfigureMockMvc
+@Transactional
+class MetricsIT extends AbstractEndpointTest {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void metrics() throws Exception {
+
+        // act
+        performPost("/company", new CompanyDTO("Metrics"), CompanyDTOWithId.class, MockMvcResultMatchers.status().isCreated());
+
+        // assert
+        Assertions.assertThat(meterRegistry.find("service.invocations").tags("class", CompanyService.class.getName(), "method", "create").timer())
+                .isNotNull()
+                .satisfies(timer -> Assertions.assertThat(timer.count()).isEqualTo(1));
+        Assertions.assertThat(meterRegistry.find("spring.data.repository.invocations").tags("repository", "CompanyRepository").timers())
+                .isNotEmpty();
+        Assertions.assertThat(meterRegistry.find("hibernate.entities.inserts").functionCounter()).isNotNull();
+        Assertions.assertThat(meterRegistry.find("hikaricp.connections.active").gauge()).isNotNull();
+    }
+}